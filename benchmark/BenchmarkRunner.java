@@ -0,0 +1,66 @@
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs all benchmarks and writes the results as JSON, to compare builds with each other.
+ * <p>
+ *     Usage: {@code java BenchmarkRunner [results.json] [solver ...]}, by default the results are written to
+ *     {@code benchmark-results.json} and every solver of {@link SolverBenchmark#SOLVERS} is run. Each solver is
+ *     only run on the generated inputs it can solve, every result has the parameters it was run with.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+    private static final int[] RECTANGLES = {100, 1000, 10000};
+    private static final String[] HEIGHTS = {"free", "100", "1000"};
+    private static final boolean[] ROTATIONS = {false, true};
+
+    public static void main(String[] args) throws RunnerException, FileNotFoundException {
+        String path = args.length > 0 ? args[0] : "benchmark-results.json";
+        List<String> solvers = args.length > 1
+                ? Arrays.asList(args).subList(1, args.length)
+                : Arrays.asList(SolverBenchmark.SOLVERS);
+
+        List<RunResult> results = new ArrayList<>();
+        results.addAll(new Runner(new OptionsBuilder()
+                .include(UtilBenchmark.class.getSimpleName())
+                .build()).run());
+
+        for (String solver : solvers) {
+            for (int rectangles : RECTANGLES) {
+                for (String height : HEIGHTS) {
+                    for (boolean rotations : ROTATIONS) {
+                        Parameters parameters = InstanceGenerator.parameters(rectangles, height, rotations,
+                                InstanceGenerator.SEED);
+                        if (!SolverBenchmark.createSolver(solver).canSolveParameters(parameters)) continue;
+
+                        Options options = new OptionsBuilder()
+                                .include(SolverBenchmark.class.getSimpleName())
+                                .param("solver", solver)
+                                .param("rectangles", String.valueOf(rectangles))
+                                .param("height", height)
+                                .param("rotations", String.valueOf(rotations))
+                                .build();
+                        results.addAll(new Runner(options).run());
+                    }
+                }
+            }
+        }
+
+        try (PrintStream out = new PrintStream(path)) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+        System.out.println("Wrote " + results.size() + " results to " + path);
+    }
+}
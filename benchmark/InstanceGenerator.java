@@ -0,0 +1,61 @@
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates random inputs in the input format of the {@link PackingSolver} for the benchmarks.
+ * <p>
+ *     The instances only depend on the arguments, so every fork of a benchmark and every run of the harness packs
+ *     the same rectangles. The sides of the rectangles are at most {@link #MAX_SIDE} and never larger than the
+ *     container height, so every rectangle fits in both orientations.
+ * </p>
+ */
+public class InstanceGenerator {
+
+    /**
+     * Largest side of a generated rectangle.
+     */
+    public static final int MAX_SIDE = 100;
+
+    /**
+     * Seed used by the benchmarks.
+     */
+    public static final long SEED = 2020L;
+
+    /**
+     * Returns the text of a random input.
+     *
+     * @param rectangles the number of rectangles
+     * @param height     {@code "free"} or the height of the container
+     * @param rotations  if the rectangles may be rotated
+     * @param seed       the seed of the random rectangles
+     * @return the input as it would be given to the {@code PackingSolver}
+     */
+    public static String generate(int rectangles, String height, boolean rotations, long seed) {
+        Random random = new Random(seed);
+        int maxSide = MAX_SIDE;
+        StringBuilder input = new StringBuilder();
+        if (height.equals("free")) {
+            input.append("container height: free\n");
+        } else {
+            input.append("container height: fixed ").append(height).append("\n");
+            maxSide = Math.min(maxSide, Integer.parseInt(height));
+        }
+        input.append("rotations allowed: ").append(rotations ? "yes" : "no").append("\n");
+        input.append("number of rectangles: ").append(rectangles).append("\n");
+        for (int i = 0; i < rectangles; i++) {
+            input.append(1 + random.nextInt(maxSide)).append(" ").append(1 + random.nextInt(maxSide)).append("\n");
+        }
+        return input.toString();
+    }
+
+    /**
+     * Returns the {@code Parameters} of a random input, parsed by {@link UserInput}.
+     *
+     * @see #generate(int, String, boolean, long)
+     */
+    public static Parameters parameters(int rectangles, String height, boolean rotations, long seed) {
+        byte[] input = generate(rectangles, height, rotations, seed).getBytes(StandardCharsets.US_ASCII);
+        return new UserInput(new ByteArrayInputStream(input)).getUserInput();
+    }
+}
@@ -0,0 +1,95 @@
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of {@link AbstractSolver#getSolution(Parameters)} for every solver on generated inputs.
+ * <p>
+ *     Not every solver can solve every combination of parameters, {@link BenchmarkRunner} only runs the combinations
+ *     for which {@link AbstractSolver#canSolveParameters(Parameters)} holds. Running this class directly with all
+ *     parameters reports the other combinations as failed in the setup.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SolverBenchmark {
+
+    /**
+     * Names of the solvers that can be benchmarked, see {@link #createSolver(String)}.
+     */
+    public static final String[] SOLVERS = {"FirstFit", "BottomUp", "ReverseFit", "SimpleTopLeft", "TopLeft",
+            "Compression", "Skyline", "Genetic", "Compound"};
+
+    @Param({"FirstFit", "BottomUp", "ReverseFit", "SimpleTopLeft", "TopLeft", "Compression", "Skyline", "Genetic",
+            "Compound"})
+    public String solver;
+
+    @Param({"100", "1000", "10000"})
+    public int rectangles;
+
+    @Param({"free", "100", "1000"})
+    public String height;
+
+    @Param({"false", "true"})
+    public boolean rotations;
+
+    private AbstractSolver instance;
+    private Parameters parameters;
+
+    // Solvers change the parameters they are given, so every invocation gets a fresh copy
+    private Parameters input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parameters = InstanceGenerator.parameters(rectangles, height, rotations, InstanceGenerator.SEED);
+        instance = createSolver(solver);
+        if (!instance.canSolveParameters(parameters)) {
+            throw new IllegalStateException(solver + " can not solve " + rectangles + " rectangles with height "
+                    + height + (rotations ? " and rotations" : ""));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyInput() {
+        input = parameters.copy();
+    }
+
+    @Benchmark
+    public Solution solve() {
+        return instance.getSolution(input);
+    }
+
+    /**
+     * Returns a new solver by its name in {@link #SOLVERS}.
+     *
+     * @throws IllegalArgumentException if there is no solver with that name
+     */
+    public static AbstractSolver createSolver(String name) {
+        switch (name) {
+            case "FirstFit":
+                return new FirstFitSolver();
+            case "BottomUp":
+                return new BottomUpSolver();
+            case "ReverseFit":
+                return new ReverseFitSolver();
+            case "SimpleTopLeft":
+                return new SimpleTopLeftSolver();
+            case "TopLeft":
+                return new TopLeftSolver();
+            case "Compression":
+                return new CompressionSolver();
+            case "Skyline":
+                return new SkylineSolver();
+            case "Genetic":
+                return new GeneticSolver(new TopLeftSolver(false), true);
+            case "Compound":
+                return PackingSolver.createSolver();
+            default:
+                throw new IllegalArgumentException("Unknown solver " + name);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of the work around the solvers: validating, copying, reading the input and writing the output.
+ * <p>
+ *     The solution that is validated and written is the one of the {@link FirstFitSolver}, which is fast enough to
+ *     find for every combination of parameters.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rectangles;
+
+    @Param({"free", "100", "1000"})
+    public String height;
+
+    @Param({"false", "true"})
+    public boolean rotations;
+
+    private byte[] input;
+    private Parameters parameters;
+    private Solution solution;
+    private String[] inputOrder;
+
+    private PrintStream systemOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = InstanceGenerator.generate(rectangles, height, rotations, InstanceGenerator.SEED)
+                .getBytes(StandardCharsets.US_ASCII);
+        parameters = new UserInput(new ByteArrayInputStream(input)).getUserInput();
+        inputOrder = parameters.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
+        solution = new FirstFitSolver().getSolution(parameters.copy());
+
+        // The output is written to System.out, which should not end up in the results of JMH
+        systemOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public boolean sweepline() {
+        return Util.sweepline(solution);
+    }
+
+    @Benchmark
+    public boolean isValidSolution() {
+        return Util.isValidSolution(solution, false);
+    }
+
+    @Benchmark
+    public Parameters copy() {
+        return parameters.copy();
+    }
+
+    @Benchmark
+    public Parameters getUserInput() {
+        return new UserInput(new ByteArrayInputStream(input)).getUserInput();
+    }
+
+    @Benchmark
+    public void output() {
+        PackingSolver.Output.output(solution.parameters, inputOrder);
+    }
+}
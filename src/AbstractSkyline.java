@@ -63,4 +63,56 @@ public abstract class AbstractSkyline {
      * @returns the most left x position of the segments.
      */
     public abstract int getMostLeftPoint();
+
+    /**
+     * Merges neighbouring segments with the same x coordinate and raises segments that are too small for any of
+     * the remaining rectangles to the lowest of their neighbours.
+     * @param rectangles The rectangles that have not been placed yet
+     * @param rotationsAllowed Whether the remaining rectangles may be rotated
+     */
+    public abstract void fixSkylineAfterPlacements(ArrayList<Rectangle> rectangles, boolean rotationsAllowed);
+
+    /**
+     * Copies the list of rectangles, the rectangles themselves are not copied.
+     * @param sequence The rectangles to copy
+     * @returns a new list containing the same rectangles
+     */
+    public ArrayList<Rectangle> deepCopyRectangles(ArrayList<Rectangle> sequence) {
+        ArrayList<Rectangle> result = new ArrayList<>();
+        for (Rectangle rec : sequence) {
+            result.add(rec);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the smallest and second smallest width and height of the rectangles that have not been placed yet.
+     * @param sequence The rectangles that have not been placed yet
+     * @returns {minWidth, secWidth, minHeight, secHeight}
+     */
+    public int[] getMinWidthHeightOtherRectangles(ArrayList<Rectangle> sequence) {
+        int minWidth = Integer.MAX_VALUE;
+        int secWidth = Integer.MAX_VALUE;
+        int minHeight = Integer.MAX_VALUE;
+        int secHeight = Integer.MAX_VALUE;
+        for (Rectangle rec : sequence) {
+            if (rec.width < minWidth) {
+                minWidth = rec.width;
+                secWidth = minWidth;
+            } else if (rec.width < secWidth) {
+                secWidth = rec.width;
+            }
+            if (rec.height < minHeight) {
+                minHeight = rec.height;
+                secHeight = minHeight;
+            } else if (rec.height < secHeight) {
+                secHeight = rec.height;
+            }
+        }
+//        if (rotationsAllowed) {
+//            minHeight = Math.min(minHeight, minWidth);
+//            minWidth = minHeight;
+//        }
+        return new int[] {minWidth, secWidth, minHeight, secHeight};
+    }
 }
@@ -1,6 +1,7 @@
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstract Solver class
@@ -17,6 +18,16 @@ import java.util.Set;
 public abstract class AbstractSolver {
     boolean allowInputSorting;
 
+    /**
+     * The deadline of the current solve, which {@link #pack(Parameters)} should check in its main loop.
+     */
+    Deadline deadline = Deadline.none();
+
+    /**
+     * The progress of the current solve, which the better solutions found along the way are reported to.
+     */
+    Progress progress = Progress.none();
+
     /**
      * @param allowInputSorting allow/disallow the input to be sorted by the solver based on the context
      */
@@ -74,6 +85,34 @@ public abstract class AbstractSolver {
      * @throws IllegalArgumentException if the Solver cannot getSolution the given parameters
      */
     public Solution getSolution(Parameters parameters) throws IllegalArgumentException {
+        return getSolution(parameters, Deadline.none());
+    }
+
+    /**
+     * Returns a {@code Solution} for the given {@code Parameters}, found before the {@code deadline} expires.
+     * <p>
+     * When the deadline expires the solver returns the best solution it has found so far, solvers always find at
+     * least one solution so this may take longer than the deadline for large inputs.
+     * </p>
+     *
+     * @param parameters the parameters for which to getSolution
+     * @param deadline   the deadline after which the solver should stop
+     * @return a {@code Solution} object containing the results
+     * @throws IllegalArgumentException if the Solver cannot getSolution the given parameters
+     * @see #getSolution(Parameters)
+     */
+    public Solution getSolution(Parameters parameters, Deadline deadline) throws IllegalArgumentException {
+        return solve(parameters, deadline, Progress.none());
+    }
+
+    /**
+     * Solves the parameters with a new {@link Progress}, so nothing that was learned in an earlier solve is used.
+     */
+    private Solution solve(Parameters parameters, Deadline deadline, Progress progress) {
+        setDeadline(deadline);
+        setProgress(progress);
+        // No solution can be smaller than the bound, the solvers stop once they reach it
+        progress.getBoard().offerLowerBound(LowerBounds.getArea(parameters));
         if (!getHeightSupport().contains(parameters.heightVariant)) {
             throw new IllegalArgumentException(this.getClass().getSimpleName() +
                     " does not support " + parameters.heightVariant);
@@ -99,10 +138,46 @@ public abstract class AbstractSolver {
             solution = new FreeHeightUtil(this).pack(parameters);
         }
 
-        // report(solution);
+        report(solution);
         return solution;
     }
 
+    /**
+     * Solves the {@code parameters} on a new thread and publishes every better solution that is found along the way.
+     * <p>
+     *     Solvers report their best solution so far while they run, like the generations of the {@link GeneticSolver}
+     *     or the heights of the {@link FreeHeightUtil}, so a caller can use a good enough solution early. Cancelling
+     *     the {@code deadline} makes the solvers stop, the future then completes with the best solution so far.
+     *     Cancelling the future cancels the deadline as well.
+     * </p>
+     *
+     * @param parameters the parameters for which to getSolution
+     * @param deadline   the deadline after which the solver should stop
+     * @param listener   the listener that receives the better solutions, called on the threads of the solvers
+     * @return a future that completes with the final solution, or exceptionally if the solver fails
+     */
+    public CompletableFuture<Solution> solveAsync(Parameters parameters, Deadline deadline,
+                                                  ImprovementListener listener) {
+        CompletableFuture<Solution> future = new CompletableFuture<Solution>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                deadline.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        // Not on a shared pool, a CompoundSolver waits for its children on that pool
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(solve(parameters, deadline, new Progress(listener)));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, getClass().getSimpleName() + "-async");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
     /**
      * Hook method for implementing a {@code Solver}.
      * <p>
@@ -123,6 +198,87 @@ public abstract class AbstractSolver {
      */
     abstract Solution pack(Parameters parameters);
 
+    /**
+     * Sets the deadline of the next calls to {@link #pack(Parameters)}.
+     * <p>
+     *     Solvers that run other solvers set their own deadline, or a part of it, on those solvers before calling
+     *     their {@code pack}.
+     * </p>
+     *
+     * @param deadline the deadline after which the solver should stop
+     */
+    void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the progress the next calls to {@link #pack(Parameters)} report to, like {@link #setDeadline(Deadline)}.
+     */
+    void setProgress(Progress progress) {
+        this.progress = progress;
+    }
+
+    Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns the board of the current solve, which every solver of the solve reads and writes.
+     */
+    IncumbentBoard getBoard() {
+        return progress.getBoard();
+    }
+
+    /**
+     * Returns the width a solution of the {@code parameters} has to stay below to be better than the solutions on the
+     * {@link IncumbentBoard}.
+     * <p>
+     *     Constructive solvers only make their packing wider while placing, so they compare the width of the partial
+     *     packing to the cutoff and return {@code null} once it is reached: the solution cannot improve the solve.
+     *     The cutoff is the best width for the height, or the width at which the best area of any height is reached.
+     *     Outside a solve, and for the first solution of a solve, there is no cutoff.
+     * </p>
+     *
+     * @param parameters the parameters with the fixed height that are being packed
+     * @return the cutoff width, or {@link Long#MAX_VALUE} if there is none
+     */
+    long getCutoff(Parameters parameters) {
+        if (parameters.height <= 0) return Long.MAX_VALUE;
+        IncumbentBoard board = getBoard();
+        long cutoff = board.getBestWidth(parameters.height);
+        long area = board.getBestArea();
+        if (area != Long.MAX_VALUE) {
+            cutoff = Math.min(cutoff, (area + parameters.height - 1) / parameters.height);
+        }
+        return cutoff;
+    }
+
+    /**
+     * Reports a solution found during the current solve to the {@link IncumbentBoard}, and publishes it if it is better
+     * than the solutions that were reported before and the solve is asynchronous.
+     *
+     * @param solution the best solution of this solver so far
+     */
+    void report(Solution solution) {
+        progress.offer(solution, this);
+    }
+
+    /**
+     * Returns a new instance of this solver with the same configuration.
+     * <p>
+     *     Solvers keep state in their fields while packing, so a single instance should never be used by multiple
+     *     threads at the same time. Use this function to give every thread its own instance, like the
+     *     {@link FreeHeightUtil} does.
+     * </p>
+     *
+     * @return a new {@code AbstractSolver} of the same type and configuration
+     */
+    abstract AbstractSolver copy();
+
 
     /**
      * Returns the name of this solver
@@ -1,5 +1,6 @@
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class ArrayListSkyline extends AbstractSkyline {
 
@@ -9,6 +10,18 @@ public class ArrayListSkyline extends AbstractSkyline {
     public int maximumSpread;
     public boolean rotationsAllowed;
 
+    /**
+     * Whether {@link #addSegment(int, Segment)} and {@link #removeSegment(int)} record their changes, only during
+     * the trial placement in {@link #getLocalWaste(Rectangle, SegPoint, int[])}.
+     */
+    private boolean trial = false;
+    /**
+     * The changes made during a trial placement, the index of an added segment or {@code -index - 1} of a removed
+     * segment in {@link #undoIndices} and the segment itself in {@link #undoSegments}.
+     */
+    private int[] undoIndices = new int[8];
+    private final ArrayList<Segment> undoSegments = new ArrayList<>();
+
     public ArrayListSkyline(int height, int width, int maximumSpread, boolean rotationsAllowed) {
         this.globalHeight = height;
         this.globalWidth = width;
@@ -24,30 +37,13 @@ public class ArrayListSkyline extends AbstractSkyline {
         return position.x + rectangle.width - mostLeftPoint > maximumSpread;
     }
 
-    public ArrayList<Segment> deepCopySkyline(ArrayList<Segment> skyline) {
-        ArrayList<Segment> result = new ArrayList<>();
-        for (Segment segment : skyline) {
-            result.add(segment);
-        }
-        return result;
-    }
-
-
-    public ArrayList<Rectangle> deepCopyRectangles(ArrayList<Rectangle> sequence) {
-        ArrayList<Rectangle> result = new ArrayList<>();
-        for (Rectangle rec : sequence) {
-            result.add(rec);
-        }
-        return result;
-    }
-
     @Override
     public int getLocalWaste(Rectangle rectangle, SegPoint position, int[] smallestRecs) {
-        ArrayList<Segment> skylineBefore = deepCopySkyline(skyline);
-
         // Compute wasted space left
         int areaBefore = getAreaOfSkyline(skyline);
+        trial = true;
         adjustSkyline(rectangle, position);
+        trial = false;
         int areaAfter = getAreaOfSkyline(skyline);
         int wastedSpaceLeft = areaAfter - areaBefore - rectangle.height * rectangle.width;
 
@@ -97,38 +93,12 @@ public class ArrayListSkyline extends AbstractSkyline {
             }
         }
 
-        skyline = skylineBefore;
+        rollback();
 
         return  wastedSpaceLeft + wastedSpaceBelow + wastedSpaceRight + wastedSpaceAbove;
     }
 
 
-    public int[] getMinWidthHeightOtherRectangles(ArrayList<Rectangle> sequence) {
-        int minWidth = Integer.MAX_VALUE;
-        int secWidth = Integer.MAX_VALUE;
-        int minHeight = Integer.MAX_VALUE;
-        int secHeight = Integer.MAX_VALUE;
-        for (Rectangle rec : sequence) {
-            if (rec.width < minWidth) {
-                minWidth = rec.width;
-                secWidth = minWidth;
-            } else if (rec.width < secWidth) {
-                secWidth = rec.width;
-            }
-            if (rec.height < minHeight) {
-                minHeight = rec.height;
-                secHeight = minHeight;
-            } else if (rec.height < secHeight) {
-                secHeight = rec.height;
-            }
-        }
-//        if (rotationsAllowed) {
-//            minHeight = Math.min(minHeight, minWidth);
-//            minWidth = minHeight;
-//        }
-        return new int[] {minWidth, secWidth, minHeight, secHeight};
-    }
-
     @Override
     public int getFitnessNumber(PositionRectangleRotationPair pair) {
         int fitnessNumber = 0;
@@ -227,10 +197,11 @@ public class ArrayListSkyline extends AbstractSkyline {
         // Note that a rectangle is always placed with the origin matching a skyline point.
         Segment segmentOnWhichIsToBePlaced = null;
         int index = 0;
-        for (Segment segment : skyline) {
+        for (int i = 0; i < skyline.size(); i++) {
+            Segment segment = skyline.get(i);
             if (segment.start.equals(position) || segment.end.equals(position)) {
                 segmentOnWhichIsToBePlaced = segment;
-                index = skyline.indexOf(segment);
+                index = i;
             }
         }
 
@@ -241,32 +212,32 @@ public class ArrayListSkyline extends AbstractSkyline {
         if (segmentOnWhichIsToBePlaced.getLength() > rectangle.height) {
             if (position.start) {// Top left corner of rectangle is placed on upper candidate position of segment
                 SegPoint endPoint = segmentOnWhichIsToBePlaced.end;
-                skyline.remove(segmentOnWhichIsToBePlaced);
-                skyline.add(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
+                removeSegment(index);
+                addSegment(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
                         new SegPoint(false, new Point(rectangle.x + rectangle.width, position.y + rectangle.height))));
-                skyline.add(index + 1, new Segment(new SegPoint(true, new Point(endPoint.x, position.y + rectangle.height)), endPoint));
+                addSegment(index + 1, new Segment(new SegPoint(true, new Point(endPoint.x, position.y + rectangle.height)), endPoint));
             } else if (!position.start) {// Bottom left corner of rectangle is placed on lower candidate position of segment
                 SegPoint beginPoint = segmentOnWhichIsToBePlaced.start;
-                skyline.remove(segmentOnWhichIsToBePlaced);
-                skyline.add(index, new Segment(beginPoint, new SegPoint(false, new Point(beginPoint.x, position.y - rectangle.height))));
-                skyline.add(index + 1, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)),
+                removeSegment(index);
+                addSegment(index, new Segment(beginPoint, new SegPoint(false, new Point(beginPoint.x, position.y - rectangle.height))));
+                addSegment(index + 1, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)),
                         new SegPoint(false, new Point(position.x + rectangle.width, position.y))));
             }
         } else if (segmentOnWhichIsToBePlaced.getLength() == rectangle.height) { // Case 2: rectangle to placed is exactly as big as the segment on which it is placed
             if (position.start) {
-                skyline.remove(segmentOnWhichIsToBePlaced);
-                skyline.add(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)), new SegPoint(false,
+                removeSegment(index);
+                addSegment(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)), new SegPoint(false,
                         new Point(position.x + rectangle.width, position.y + rectangle.height))));
             } else if (!position.start) {
-                skyline.remove(segmentOnWhichIsToBePlaced);
-                skyline.add(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)), new SegPoint(false,
+                removeSegment(index);
+                addSegment(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)), new SegPoint(false,
                         new Point(position.x + rectangle.width, position.y))));
             }
         } else { // Case 3 : rectangle to be placed is longer than the segment on which it is placed
             if (position.start) {
-                skyline.remove(segmentOnWhichIsToBePlaced);
+                removeSegment(index);
                 int upToThisY = position.y + rectangle.height;
-                skyline.add(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
+                addSegment(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
                         new SegPoint(false, new Point(position.x + rectangle.width, upToThisY))));
 
 
@@ -274,7 +245,7 @@ public class ArrayListSkyline extends AbstractSkyline {
                 // delete segments that are completely overshadowed
                 while(index + 1 < skyline.size()) {
                     if (skyline.get(index + 1).end.y < upToThisY) {
-                        skyline.remove(skyline.get(index + 1));
+                        removeSegment(index + 1);
                     } else {
                         break;
                     }
@@ -283,20 +254,20 @@ public class ArrayListSkyline extends AbstractSkyline {
                 // From here we only need to cut a segment in half or delete it
                 Segment segmentToCut = skyline.get(index + 1);
                 SegPoint upToSegPoint = segmentToCut.end;
-                skyline.remove(segmentToCut);
+                removeSegment(index + 1);
                 if (upToSegPoint.y > upToThisY) {
-                    skyline.add(index + 1, new Segment(new SegPoint(true, new Point(upToSegPoint.x, position.y + rectangle.height)), upToSegPoint));
+                    addSegment(index + 1, new Segment(new SegPoint(true, new Point(upToSegPoint.x, position.y + rectangle.height)), upToSegPoint));
                 }
             } else if (!position.start) {
-                skyline.remove(segmentOnWhichIsToBePlaced);
+                removeSegment(index);
                 int upToThisY = position.y - rectangle.height;
-                skyline.add(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, upToThisY)),
+                addSegment(index, new Segment(new SegPoint(true, new Point(position.x + rectangle.width, upToThisY)),
                         new SegPoint(false, new Point(position.x + rectangle.width, position.y))));
 
                 // delete segments that are completely overshadowed
                 for (int i = index - 1; i > - 1; i--) {
                     if (skyline.get(i).start.y > upToThisY) {
-                        skyline.remove(skyline.get(i));
+                        removeSegment(i);
                         index--;
                     }
                 }
@@ -304,14 +275,54 @@ public class ArrayListSkyline extends AbstractSkyline {
                 // From here we only need to cut a segment in half or delete it
                 Segment segmentToCut = skyline.get(index - 1);
                 SegPoint upToSegPoint = segmentToCut.start;
-                skyline.remove(segmentToCut);
+                removeSegment(index - 1);
                 if (upToSegPoint.y < upToThisY) {
-                    skyline.add(index - 1, new Segment(upToSegPoint, new SegPoint(false, new Point(upToSegPoint.x, position.y - rectangle.height))));
+                    addSegment(index - 1, new Segment(upToSegPoint, new SegPoint(false, new Point(upToSegPoint.x, position.y - rectangle.height))));
                 }
             }
         }
     }
 
+    /**
+     * Inserts a segment in the skyline, recording it during a trial placement.
+     */
+    private void addSegment(int index, Segment segment) {
+        skyline.add(index, segment);
+        if (trial) record(index, segment);
+    }
+
+    /**
+     * Removes the segment at an index from the skyline, recording it during a trial placement.
+     */
+    private void removeSegment(int index) {
+        Segment segment = skyline.remove(index);
+        if (trial) record(-index - 1, segment);
+    }
+
+    private void record(int index, Segment segment) {
+        if (undoSegments.size() == undoIndices.length) {
+            undoIndices = Arrays.copyOf(undoIndices, undoIndices.length * 2);
+        }
+        undoIndices[undoSegments.size()] = index;
+        undoSegments.add(segment);
+    }
+
+    /**
+     * Undoes the changes of the last trial placement in reverse order, the segments are not modified during a trial
+     * so putting them back restores the skyline.
+     */
+    private void rollback() {
+        for (int i = undoSegments.size() - 1; i >= 0; i--) {
+            if (undoIndices[i] >= 0) {
+                skyline.remove(undoIndices[i]);
+            } else {
+                skyline.add(-undoIndices[i] - 1, undoSegments.get(i));
+            }
+        }
+        undoSegments.clear();
+    }
+
+    @Override
     public void fixSkylineAfterPlacements(ArrayList<Rectangle> rectangles, boolean rotationsAllowed) {
         boolean changes;
         do {
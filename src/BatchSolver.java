@@ -0,0 +1,241 @@
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves many inputs in one JVM, so the startup and warm-up of the JVM is only paid once.
+ * <p>
+ *     Usage: {@code java BatchSolver <directory|manifest> <output directory> [workers]}. A directory is searched
+ *     for {@code .in} files, a manifest is a text file with the path of an input on every line. For every input an
+ *     {@code .out} file is written in the output directory, in the same relative location, with the same output as
+ *     the {@link PackingSolver} would give. A {@code summary.tsv} with the area, rate, solver and time of every input
+ *     is written when all inputs are solved.
+ * </p>
+ * <p>
+ *     The inputs are solved by a fixed number of workers, by default one per core, each with its own solver from
+ *     {@link PackingSolver#createSolver()}. The heap needed for an input is estimated from the size of its file and
+ *     an input only starts when enough of the memory budget is left. The smallest inputs are started first and a
+ *     single input never needs more than the whole budget, so a large input waits for memory without blocking the
+ *     small ones and is never starved itself.
+ * </p>
+ */
+public class BatchSolver {
+
+    /**
+     * Estimate of the heap in bytes needed while solving per byte of the input file.
+     */
+    static final int HEAP_PER_INPUT_BYTE = 64;
+
+    /**
+     * Part of the maximum heap that the inputs that are being solved may use together.
+     */
+    static final double MEMORY_BUDGET = 0.5;
+
+    private final int workers;
+
+    // Memory budget in KiB, an input holds permits while it is solved
+    private final Semaphore memory;
+    private final int memoryPermits;
+
+    public BatchSolver(int workers) {
+        this.workers = workers;
+        this.memoryPermits = (int) Math.min(Integer.MAX_VALUE,
+                (long) (Runtime.getRuntime().maxMemory() * MEMORY_BUDGET) / 1024);
+        this.memory = new Semaphore(memoryPermits);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: java BatchSolver <directory|manifest> <output directory> [workers]");
+            return;
+        }
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path input = Paths.get(args[0]);
+        Path outputDirectory = Paths.get(args[1]);
+
+        List<Result> results = new BatchSolver(workers).solve(input, outputDirectory);
+        long failed = results.stream().filter(result -> result.error != null).count();
+        System.err.println("Solved " + (results.size() - failed) + " of " + results.size() + " inputs");
+    }
+
+    /**
+     * Solves every input of the directory or manifest and writes the outputs and the summary.
+     *
+     * @param input           a directory with {@code .in} files or a manifest with a path on every line
+     * @param outputDirectory the directory to write the outputs and the summary to
+     * @return the results, sorted on the path of the input
+     * @throws IOException if the inputs can not be listed or the summary can not be written
+     */
+    public List<Result> solve(Path input, Path outputDirectory) throws IOException, InterruptedException {
+        List<Path> inputs;
+        Path root;
+        if (Files.isDirectory(input)) {
+            root = input;
+            try (Stream<Path> files = Files.walk(input)) {
+                inputs = files.filter(path -> path.toString().endsWith(".in") && Files.isRegularFile(path))
+                        .collect(Collectors.toList());
+            }
+        } else {
+            root = input.toAbsolutePath().getParent();
+            inputs = Files.readAllLines(input, StandardCharsets.UTF_8).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(line -> root.resolve(line).normalize())
+                    .collect(Collectors.toList());
+        }
+
+        // Small inputs first, they can run next to each other while the large ones wait for memory
+        List<Job> jobs = new ArrayList<>();
+        for (Path path : inputs) {
+            // Missing inputs are reported in the summary when they are run
+            long size = Files.isRegularFile(path) ? Files.size(path) : 0;
+            jobs.add(new Job(path, relativeOutput(root, path, outputDirectory), size));
+        }
+        jobs.sort(Comparator.comparingLong(job -> job.size));
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (Job job : jobs) {
+                futures.add(executor.submit(() -> run(job)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(new Result(jobs.get(i).input, e.getCause()));
+            }
+        }
+
+        // Sorted on the input, so the summaries of different runs can be compared line by line
+        results.sort(Comparator.comparing(result -> result.input.toString()));
+        writeSummary(results, outputDirectory.resolve("summary.tsv"));
+        return results;
+    }
+
+    private Result run(Job job) throws InterruptedException {
+        int permits = (int) Math.max(1, Math.min(memoryPermits, job.size * HEAP_PER_INPUT_BYTE / 1024));
+        memory.acquire(permits);
+        try {
+            long startTime = System.nanoTime();
+            Parameters params;
+            try (InputStream in = new FileInputStream(job.input.toFile())) {
+                params = new UserInput(in).getUserInput();
+            }
+            // Remember the order of the rectangles for the output
+            String[] inputOrder = params.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
+            int nRectangles = params.rectangles.size();
+
+            Solution solution = PackingSolver.createSolver().getSolution(params);
+            long duration = (System.nanoTime() - startTime) / 1000000;
+
+            Files.createDirectories(job.output.getParent());
+            try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(job.output)))) {
+                PackingSolver.Output.output(solution.parameters, inputOrder, out);
+            }
+
+            if (Util.debug) System.err.println(job.input + " solved in " + duration + "ms");
+            return new Result(job.input, nRectangles, solution, duration);
+        } catch (Exception e) {
+            if (Util.debug) e.printStackTrace();
+            return new Result(job.input, e);
+        } finally {
+            memory.release(permits);
+        }
+    }
+
+    private static Path relativeOutput(Path root, Path input, Path outputDirectory) {
+        Path relative;
+        if (root != null && input.toAbsolutePath().startsWith(root.toAbsolutePath())) {
+            relative = root.toAbsolutePath().relativize(input.toAbsolutePath());
+        } else {
+            relative = input.getFileName();
+        }
+        String name = relative.getFileName().toString();
+        if (name.endsWith(".in")) {
+            name = name.substring(0, name.length() - ".in".length());
+        }
+        Path parent = relative.getParent();
+        return outputDirectory.resolve(parent == null ? Paths.get(name + ".out") : parent.resolve(name + ".out"));
+    }
+
+    private static void writeSummary(List<Result> results, Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(path)), false, "UTF-8")) {
+            out.println("input\trectangles\tarea\trate\tsolver\ttime_ms\terror");
+            for (Result result : results) {
+                out.println(result);
+            }
+        }
+    }
+
+    private static class Job {
+        final Path input;
+        final Path output;
+        final long size;
+
+        Job(Path input, Path output, long size) {
+            this.input = input;
+            this.output = output;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Line of the summary for a single input.
+     */
+    public static class Result {
+        public final Path input;
+        public final int rectangles;
+        public final long area;
+        public final double rate;
+        public final String solver;
+        public final long time;
+        public final Throwable error;
+
+        Result(Path input, int rectangles, Solution solution, long time) {
+            this.input = input;
+            this.rectangles = rectangles;
+            this.area = solution.getArea();
+            this.rate = solution.getRate();
+            this.solver = solution.solvedBy == null ? "" : solution.solvedBy.getName();
+            this.time = time;
+            this.error = null;
+        }
+
+        Result(Path input, Throwable error) {
+            this.input = input;
+            this.rectangles = 0;
+            this.area = 0;
+            this.rate = 0;
+            this.solver = "";
+            this.time = 0;
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return input + "\t\t\t\t\t\t" + error.toString().replace('\t', ' ').replace('\n', ' ');
+            }
+            return input + "\t" + rectangles + "\t" + area + "\t" + rate + "\t" + solver + "\t" + time + "\t";
+        }
+    }
+}
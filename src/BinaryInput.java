@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Reads instances and solutions in the binary format, the binary counterpart of {@link UserInput}.
+ * <p>
+ *     Both formats start with a header of five little endian ints: a magic number, the version, the flags (bit 0 for
+ *     a free height, bit 1 if rotations are allowed), the container height and the number of rectangles {@code n}.
+ * </p>
+ * <p>
+ *     An instance then has {@code n} ints with the widths followed by {@code n} ints with the heights. A solution
+ *     has {@code n} ints with the x coordinates, {@code n} ints with the y coordinates and {@code (n + 7) / 8} bytes
+ *     with a bit per rectangle that is set if it is rotated. The rectangles are in the order of the input. Files are
+ *     memory mapped, so loading them only copies the columns into the arrays.
+ * </p>
+ *
+ * @see BinaryOutput
+ */
+public class BinaryInput {
+    static final int INSTANCE_MAGIC = 0x44424C49; // "DBLI"
+    static final int SOLUTION_MAGIC = 0x44424C53; // "DBLS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    static final int FREE_HEIGHT = 1;
+    static final int ROTATIONS = 1 << 1;
+
+    /**
+     * Reads an instance, the same as {@link UserInput#getUserInput()} does for the text format.
+     *
+     * @param path the file with the instance
+     * @return the parameters of the instance, with new rectangles in the order of the file
+     * @throws IOException if the file can not be read or is not an instance in the binary format
+     */
+    public static Parameters readInstance(Path path) throws IOException {
+        ByteBuffer buffer = map(path);
+        Parameters params = readHeader(buffer, INSTANCE_MAGIC);
+        int n = buffer.getInt(4 * Integer.BYTES);
+        checkSize(buffer, 2L * n * Integer.BYTES);
+
+        int[] widths = new int[n];
+        int[] heights = new int[n];
+        IntBuffer columns = buffer.asIntBuffer();
+        columns.get(widths);
+        columns.get(heights);
+
+        ArrayList<Rectangle> rectangles = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rectangles.add(new Rectangle(widths[i], heights[i]));
+        }
+        params.setRectangles(rectangles);
+        return params;
+    }
+
+    /**
+     * Reads a solution of an instance and places the rectangles of the instance accordingly.
+     *
+     * @param path     the file with the solution
+     * @param instance the parameters of the instance, as returned by {@link #readInstance(Path)}
+     * @return the instance, with every rectangle placed
+     * @throws IOException if the file can not be read or is not a solution of the instance in the binary format
+     */
+    public static Parameters readSolution(Path path, Parameters instance) throws IOException {
+        ByteBuffer buffer = map(path);
+        Parameters header = readHeader(buffer, SOLUTION_MAGIC);
+        int n = buffer.getInt(4 * Integer.BYTES);
+        if (n != instance.rectangles.size()) {
+            throw new IOException(path + " is a solution of " + n + " rectangles instead of "
+                    + instance.rectangles.size());
+        }
+        if (header.heightVariant != instance.heightVariant || header.rotationVariant != instance.rotationVariant) {
+            throw new IOException(path + " is a solution of another variant than the instance");
+        }
+        // A solution of a free height instance has the height it was solved with
+        if (instance.heightVariant == Util.HeightSupport.FIXED && header.height != instance.height) {
+            throw new IOException(path + " is a solution for a height of " + header.height + " instead of "
+                    + instance.height);
+        }
+        checkSize(buffer, 2L * n * Integer.BYTES + (n + 7) / 8);
+
+        int[] x = new int[n];
+        int[] y = new int[n];
+        byte[] rotated = new byte[(n + 7) / 8];
+        IntBuffer columns = buffer.asIntBuffer();
+        columns.get(x);
+        columns.get(y);
+        buffer.position(buffer.position() + 2 * n * Integer.BYTES);
+        buffer.get(rotated);
+
+        for (int i = 0; i < n; i++) {
+            Rectangle rectangle = instance.rectangles.get(i);
+            rectangle.rotate((rotated[i >>> 3] & (1 << (i & 7))) != 0);
+            rectangle.setLocation(x[i], y[i]);
+            rectangle.place(true);
+        }
+        return instance;
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /**
+     * Reads the header and leaves the buffer at the start of the columns.
+     */
+    private static Parameters readHeader(ByteBuffer buffer, int magic) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != magic) {
+            throw new IOException("Not a file in the binary format");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of the binary format");
+        }
+        int flags = buffer.getInt();
+
+        Parameters params = new Parameters();
+        params.heightVariant = (flags & FREE_HEIGHT) != 0 ? Util.HeightSupport.FREE : Util.HeightSupport.FIXED;
+        params.rotationVariant = (flags & ROTATIONS) != 0;
+        params.height = buffer.getInt();
+        if (buffer.getInt() <= 0) {
+            throw new IOException("The number of rectangles must be positive.");
+        }
+        return params;
+    }
+
+    private static void checkSize(ByteBuffer buffer, long size) throws IOException {
+        if (buffer.remaining() < size) {
+            throw new IOException("The file is shorter than its header says");
+        }
+    }
+}
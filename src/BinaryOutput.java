@@ -0,0 +1,125 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes instances and solutions in the binary format, the binary counterpart of {@link PackingSolver.Output}.
+ *
+ * @see BinaryInput for a description of the format
+ */
+public class BinaryOutput {
+
+    /**
+     * Converts an instance in the text format to the binary format.
+     * <p>
+     *     Usage: {@code java BinaryOutput input.in output.bin}
+     * </p>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java BinaryOutput <input> <output>");
+            return;
+        }
+        Parameters params;
+        try (FileInputStream in = new FileInputStream(args[0])) {
+            params = new UserInput(in).getUserInput();
+        }
+        writeInstance(params, Paths.get(args[1]));
+    }
+
+    /**
+     * Writes the rectangles of the parameters as an instance, in the order of the list.
+     * <p>
+     *     Rotated rectangles are written with their original width and height.
+     * </p>
+     *
+     * @param params the parameters to write
+     * @param path   the file to write to, which is replaced if it exists
+     * @throws IOException if the file can not be written
+     */
+    public static void writeInstance(Parameters params, Path path) throws IOException {
+        int n = params.rectangles.size();
+        ByteBuffer buffer = header(params, BinaryInput.INSTANCE_MAGIC, 2L * n * Integer.BYTES);
+        for (Rectangle rectangle : params.rectangles) {
+            buffer.putInt(rectangle.isRotated() ? rectangle.height : rectangle.width);
+        }
+        for (Rectangle rectangle : params.rectangles) {
+            buffer.putInt(rectangle.isRotated() ? rectangle.width : rectangle.height);
+        }
+        write(buffer, path);
+    }
+
+    /**
+     * Writes the placement of the rectangles as a solution, with the rectangles in the order of the input.
+     *
+     * @param params     the parameters of the solution
+     * @param inputOrder the ids of the rectangles in the order they were read
+     * @param path       the file to write to, which is replaced if it exists
+     * @throws IOException if the file can not be written
+     */
+    public static void writeSolution(Parameters params, String[] inputOrder, Path path) throws IOException {
+        Map<String, Rectangle> rectangles = new HashMap<>(2 * params.rectangles.size());
+        for (Rectangle rectangle : params.rectangles) {
+            rectangles.put(rectangle.getId(), rectangle);
+        }
+        Rectangle[] ordered = new Rectangle[inputOrder.length];
+        for (int i = 0; i < inputOrder.length; i++) {
+            ordered[i] = rectangles.get(inputOrder[i]);
+            if (ordered[i] == null) {
+                throw new IllegalArgumentException("No rectangle with id " + inputOrder[i]);
+            }
+        }
+
+        int n = ordered.length;
+        ByteBuffer buffer = header(params, BinaryInput.SOLUTION_MAGIC, 2L * n * Integer.BYTES + (n + 7) / 8);
+        for (Rectangle rectangle : ordered) {
+            buffer.putInt(rectangle.x);
+        }
+        for (Rectangle rectangle : ordered) {
+            buffer.putInt(rectangle.y);
+        }
+        byte[] rotated = new byte[(n + 7) / 8];
+        for (int i = 0; i < n; i++) {
+            if (ordered[i].isRotated()) {
+                rotated[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        buffer.put(rotated);
+        write(buffer, path);
+    }
+
+    private static ByteBuffer header(Parameters params, int magic, long columnsSize) {
+        long size = BinaryInput.HEADER_SIZE + columnsSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rectangles for a single file");
+        }
+        int flags = 0;
+        if (params.heightVariant == Util.HeightSupport.FREE) flags |= BinaryInput.FREE_HEIGHT;
+        if (params.rotationVariant) flags |= BinaryInput.ROTATIONS;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(magic);
+        buffer.putInt(BinaryInput.VERSION);
+        buffer.putInt(flags);
+        buffer.putInt(params.height);
+        buffer.putInt(params.rectangles.size());
+        return buffer;
+    }
+
+    private static void write(ByteBuffer buffer, Path path) throws IOException {
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -67,6 +67,8 @@ public class BottomUpSolver extends AbstractSolver {
             Box box = new Box(first, xPos, parameters.height, parameters.rotationVariant);
 
             xPos += box.width; //the width of the first box
+            // The packing only gets wider, so it can no longer improve the solve
+            if (xPos >= getCutoff(parameters)) return null;
 
             if (!toPlace.isEmpty()) {
                 packRun(box, toPlace);
@@ -76,6 +78,11 @@ public class BottomUpSolver extends AbstractSolver {
         return new Solution(parameters, this);
     }
 
+    @Override
+    AbstractSolver copy() {
+        return new BottomUpSolver();
+    }
+
     /**
      * Packs as many rectangles as possible into a single box.
      * Updates the toPlace list.
@@ -1,10 +1,25 @@
 import java.util.ArrayList;
+import java.util.concurrent.*;
 
 /**
  * Run multiple solvers on the given parameters and return the best solution.
+ * <p>
+ * By default the solvers are run one after another. In parallel mode, see {@link #setParallel(boolean)}, every
+ * solver is run on its own worker of the {@link SolverPool} and the best solution found before {@link #getTimeLimit()},
+ * or before the deadline of the solve if that is earlier, is returned.
+ * </p>
+ * <p>
+ * Every solve runs its own {@link AbstractSolver#copy()} of the solvers, so overlapping solves do not overwrite each
+ * other's deadline or incumbent board in the solvers.
+ * </p>
  */
 public class CompoundSolver extends AbstractSolver {
 
+    /**
+     * Default time limit in milliseconds for the parallel mode.
+     */
+    static final long DEFAULT_TIME_LIMIT = 25000;
+
     public ArrayList<AbstractSolver> getSolvers() {
         return solvers;
     }
@@ -14,15 +29,55 @@ public class CompoundSolver extends AbstractSolver {
     }
 
     /**
-     * Solution object containing the best solution found.
+     * Solution object containing the best solution found by the last solve.
      */
-    private Solution bestSolution = null;
+    private volatile Solution bestSolution = null;
 
     /**
      * ArrayList containing all the solvers used.
      */
     private ArrayList<AbstractSolver> solvers = new ArrayList<>();
 
+    /**
+     * Boolean representing if the solvers should be run concurrently.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Time in milliseconds the parallel mode waits for the solvers before returning the best solution found.
+     */
+    private long timeLimit = DEFAULT_TIME_LIMIT;
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enables or disables the parallel mode.
+     *
+     * @param parallel if {@code true} every solver is run on its own worker
+     * @return this CompoundSolver
+     */
+    public CompoundSolver setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets the global time budget of the parallel mode.
+     *
+     * @param timeLimit the time limit in milliseconds
+     * @return this CompoundSolver
+     */
+    public CompoundSolver setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
     /**
      * Add a solver to the CompoundSolver.
      *
@@ -46,47 +101,165 @@ public class CompoundSolver extends AbstractSolver {
      */
     @Override
     public Solution pack(Parameters parameters) {
-        Parameters initialParameters = parameters.copy();
-        bestSolution = null;
+        if (parallel) {
+            return packParallel(parameters);
+        }
+
+        Parameters.Snapshot initialParameters = parameters.snapshot();
+        Deadline deadline = this.deadline;
+        Progress progress = this.progress;
+        Solution best = null;
         // Try and getSolution it using all the solvers in the array
-        for (AbstractSolver solver :
+        for (AbstractSolver template :
                 solvers) {
             try {
                 // Prevent solvers that don't have FIXED to be used in the free height util.
-                if (!solver.canSolveParameters(parameters)) {
+                if (!template.canSolveParameters(parameters)) {
                     continue;
                 }
-                Solution solution = solver.pack(initialParameters.copy());
+                // Keep the best solution so far once the deadline expired
+                if (best != null && deadline.isExpired()) break;
+                AbstractSolver solver = template.copy();
+                solver.setDeadline(deadline);
+                solver.setProgress(progress);
+                Solution solution = solver.pack(initialParameters.materialize());
+                solver.report(solution);
 
-                // If we didn't find a solution.
-                if (solution == null) continue;
+                best = offerSolution(solver, solution, best);
+                if (best != null && best.getRate() == 1.0d) break;
+                // No solver can beat the lower bound another solver found
+                if (best != null && best.getArea() <= progress.getBoard().getLowerBound()) break;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        bestSolution = best;
+        return best;
+    }
 
-                double rate = solution.getRate();
+    /**
+     * Solves the given {@code parameters} by running every {@code Solver} in {@code solvers} concurrently.
+     * <p>
+     * The remaining solvers are cancelled as soon as one of them finds a solution with a rate of 1.0.
+     * Otherwise the best solution found when {@link #getTimeLimit()} has passed is returned. If no solver has
+     * finished by then we keep waiting for the first one that does.
+     * </p>
+     *
+     * @param parameters the {@code Parameters} to be used by the solvers
+     * @return a {@link Solution} object associated with the smallest area found before the deadline
+     */
+    private Solution packParallel(Parameters parameters) {
+        Parameters.Snapshot initialParameters = parameters.snapshot();
+        Progress progress = this.progress;
+        Solution best = null;
 
-                // Overflow
-                if (rate < 0) {
-                    if (Util.debug) System.err.println("Negative rate");
-                    continue;
-                } else if (rate == 1.0d) {
-                    return solution;
-                }
+        // The solvers stop at the time limit, or earlier when the deadline of this solver expires
+        Deadline childDeadline = deadline.limit(timeLimit);
+        CompletionService<Solution> completionService = new ExecutorCompletionService<>(SolverPool.getExecutor());
+        ArrayList<Future<Solution>> futures = new ArrayList<>();
+        ArrayList<AbstractSolver> submitted = new ArrayList<>();
 
-                // If we found a better solution.
-                if (bestSolution == null) {
-                    if (rate >= 1) {
-                        bestSolution = solution.copy();
-                    }
-                    if (Util.debug) System.err.println(solver.getClass().getSimpleName() + " is improved with " + solution.getArea());
-                } else if (solution.isBetter(bestSolution)) {
-                    bestSolution = solution.copy();
+        for (AbstractSolver template :
+                solvers) {
+            // Prevent solvers that don't have FIXED to be used in the free height util.
+            if (!template.canSolveParameters(parameters)) {
+                continue;
+            }
+            // Copy on this thread, the workers only get their own solver and Parameters object.
+            AbstractSolver solver = template.copy();
+            Parameters childParameters = initialParameters.materialize();
+            solver.setDeadline(childDeadline);
+            solver.setProgress(progress);
+            futures.add(completionService.submit(() -> solver.pack(childParameters)));
+            submitted.add(solver);
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Solution> future;
+                if (best == null) {
+                    // Nothing to return yet, so wait regardless of the deadline.
+                    future = completionService.take();
                 } else {
-                    if (Util.debug) System.err.println(solver.getClass().getSimpleName() + " is not better with " + solution.getArea());
+                    future = completionService.poll(childDeadline.remaining(), TimeUnit.MILLISECONDS);
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+
+                // Deadline reached
+                if (future == null) {
+                    if (Util.debug) System.err.println("CompoundSolver reached its time limit of " + timeLimit + "ms");
+                    break;
+                }
+
+                try {
+                    Solution solution = future.get();
+                    AbstractSolver solver = submitted.get(futures.indexOf(future));
+                    solver.report(solution);
+                    best = offerSolution(solver, solution, best);
+                    if (best != null && best.getRate() == 1.0d) break;
+                    if (best != null && best.getArea() <= progress.getBoard().getLowerBound()) break;
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Cancel the solvers that are still running.
+            childDeadline.cancel();
+            for (Future<Solution> future : futures) {
+                future.cancel(true);
             }
         }
-        return bestSolution;
+        bestSolution = best;
+        return best;
+    }
+
+    /**
+     * Compares the {@code solution} found by {@code solver} to the best solution of the solve so far.
+     *
+     * @param solver   the solver that found the solution
+     * @param solution the solution to compare, might be {@code null}
+     * @param best     the best solution so far, might be {@code null}
+     * @return the better of the two, a solution with a rate of 1.0 means no other solver has to be tried
+     */
+    private Solution offerSolution(AbstractSolver solver, Solution solution, Solution best) {
+        // If we didn't find a solution.
+        if (solution == null) return best;
+
+        double rate = solution.getRate();
+
+        // Overflow
+        if (rate < 0) {
+            if (Util.debug) System.err.println("Negative rate");
+            return best;
+        } else if (rate == 1.0d) {
+            return solution;
+        }
+
+        // If we found a better solution, the solver is done with it so it does not have to be copied.
+        if (best == null) {
+            if (Util.debug) System.err.println(solver.getClass().getSimpleName() + " is improved with " + solution.getArea());
+            return rate >= 1 ? solution : null;
+        } else if (solution.isBetter(best)) {
+            return solution;
+        } else {
+            if (Util.debug) System.err.println(solver.getClass().getSimpleName() + " is not better with " + solution.getArea());
+        }
+        return best;
+    }
+
+    /**
+     * Returns a new CompoundSolver with a copy of every solver in {@code solvers}.
+     *
+     * @return a new CompoundSolver with the same configuration
+     */
+    @Override
+    AbstractSolver copy() {
+        CompoundSolver compoundSolver = new CompoundSolver();
+        for (AbstractSolver solver : solvers) {
+            compoundSolver.addSolver(solver.copy());
+        }
+        return compoundSolver.setParallel(parallel).setTimeLimit(timeLimit);
     }
 
     /**
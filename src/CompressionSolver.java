@@ -31,8 +31,13 @@ public class CompressionSolver extends AbstractSolver {
         SimpleTopLeftSolver simpleTopLeftSolver = new SimpleTopLeftSolver();
 
         Solution solution = firstFitSolver.getSolution(parameters);
-        solution = simpleTopLeftSolver.getSolution(solution.parameters);
+        solution = simpleTopLeftSolver.getSolution(solution.parameters, deadline);
 
         return new Solution(solution.parameters, this);
     }
+
+    @Override
+    AbstractSolver copy() {
+        return new CompressionSolver();
+    }
 }
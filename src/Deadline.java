@@ -0,0 +1,88 @@
+/**
+ * Point in time after which a solver should stop and return the best solution it has found so far.
+ * <p>
+ *     A deadline is given to {@link AbstractSolver#getSolution(Parameters, Deadline)} and checked by the solvers in
+ *     their main loops. It expires when its time has passed, when it is cancelled with {@link #cancel()}, or when the
+ *     deadline it was made from with {@link #limit(long)} expires. So a caller can stop a solver from another thread,
+ *     and a solver that runs other solvers can give them a smaller part of its own time.
+ * </p>
+ * <p>
+ *     Checking a deadline is cheap, but solvers should still only check it once per iteration of a loop that does
+ *     real work, like a single attempt or a single generation. A solver always finishes the solution it is building,
+ *     so it may overrun the deadline by the time of one iteration.
+ * </p>
+ */
+public final class Deadline {
+
+    private final long end;
+    private final boolean timed;
+    private final Deadline parent;
+    private volatile boolean cancelled = false;
+
+    private Deadline(long end, boolean timed, Deadline parent) {
+        this.end = end;
+        this.timed = timed;
+        this.parent = parent;
+    }
+
+    /**
+     * Returns a deadline without a time limit, which only expires when it is cancelled.
+     *
+     * @return a new deadline
+     */
+    public static Deadline none() {
+        return new Deadline(0, false, null);
+    }
+
+    /**
+     * Returns a deadline that expires after the given time.
+     *
+     * @param millis the time in milliseconds from now
+     * @return a new deadline
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + millis * 1000000, true, null);
+    }
+
+    /**
+     * Returns a deadline that expires after the given time, or when this deadline expires if that is earlier.
+     * Cancelling the returned deadline does not cancel this one.
+     *
+     * @param millis the time in milliseconds from now
+     * @return a new deadline
+     */
+    public Deadline limit(long millis) {
+        return new Deadline(System.nanoTime() + millis * 1000000, true, this);
+    }
+
+    /**
+     * Expires this deadline and every deadline made from it with {@link #limit(long)}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns {@code true} if the solver should stop.
+     */
+    public boolean isExpired() {
+        if (cancelled) return true;
+        if (timed && System.nanoTime() - end >= 0) return true;
+        return parent != null && parent.isExpired();
+    }
+
+    /**
+     * Returns the time in milliseconds until this deadline expires.
+     *
+     * @return {@code 0} if it has expired, {@link Long#MAX_VALUE} if it has no time limit
+     */
+    public long remaining() {
+        if (cancelled) return 0;
+        long remaining = timed ? Math.max(0, (end - System.nanoTime()) / 1000000) : Long.MAX_VALUE;
+        return parent != null ? Math.min(remaining, parent.remaining()) : remaining;
+    }
+}
@@ -20,7 +20,8 @@ public class FirstFitSolver extends AbstractSolver {
      * Find the pack value for the parameters without doing any other output.
      *
      * @param parameters The parameters to be used by the solver.
-     * @return Returns the pack area found by this solver.
+     * @return Returns the pack area found by this solver, or {@code null} if it reached the
+     * {@link #getCutoff(Parameters) cutoff}.
      */
     @Override
     Solution pack(Parameters parameters) {
@@ -65,6 +66,9 @@ public class FirstFitSolver extends AbstractSolver {
                     rectangle.x = (int) maxX;
                     rectangle.y = 0;
 
+                    // A new box only makes the packing wider
+                    if (maxX + rectangle.width >= getCutoff(parameters)) return null;
+
                     Box newBox = new Box(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
                     newBox.add(rectangle);
 
@@ -78,6 +82,13 @@ public class FirstFitSolver extends AbstractSolver {
         return new Solution(parameters, this);
     }
 
+    @Override
+    AbstractSolver copy() {
+        FirstFitSolver solver = new FirstFitSolver(allowInputSorting);
+        solver.animate = animate;
+        return solver;
+    }
+
     /**
      * Tries and fit the rectangle in one of the boxes
      *
@@ -1,16 +1,58 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Util that allows any {@code Util.HeightSupport.FIXED} to be turned into a {@code Util.HeightSupport.FREE} solver
  * using local minima finder.
+ * <p>
+ *     Every candidate height is independent of the others, so the candidate heights are solved in parallel on a
+ *     {@code ForkJoinPool}. Every worker thread gets its own copy of the {@code subSolver}, see
+ *     {@link AbstractSolver#copy()}.
+ * </p>
  */
 public class FreeHeightUtil {
 
+    /**
+     * Number of candidate heights per core that are solved before the incumbent is used to prune again.
+     */
+    private static final int BATCH_FACTOR = 4;
+
+    /**
+     * Pool on which the candidate heights are solved, shared by all instances.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of instances that are solving heights at the same time, which share the cores of the {@link #POOL}.
+     */
+    private static final AtomicInteger SWEEPS = new AtomicInteger();
+
     /**
      * The AbstractSolver used during {@link #localMinimaFinder(Parameters, int)}, by default {@link FirstFitSolver}.
      */
     private AbstractSolver subSolver;
 
+    /**
+     * Copy of the {@code subSolver} for every worker thread, since solvers keep state in their fields.
+     */
+    private final ThreadLocal<AbstractSolver> threadSolver;
+
+    /**
+     * Set as soon as a candidate height has a rate of 1.0, the remaining candidates are then skipped.
+     */
+    private final AtomicBoolean perfectFound = new AtomicBoolean(false);
+
+    /**
+     * Deadline of the heights after the first solve, the deadline of the {@code subSolver} limited to the allowed time.
+     */
+    private Deadline sweepDeadline = Deadline.none();
+
     /**
      * Constructor that sets the {@code subSolver}
      *
@@ -19,6 +61,7 @@ public class FreeHeightUtil {
      */
     FreeHeightUtil(AbstractSolver subSolver) {
         this.subSolver = subSolver;
+        this.threadSolver = ThreadLocal.withInitial(subSolver::copy);
     }
 
 
@@ -34,6 +77,18 @@ public class FreeHeightUtil {
             throw new IllegalArgumentException("Doesn't support free height");
         }
 
+        SWEEPS.incrementAndGet();
+        try {
+            return sweep(parameters);
+        } finally {
+            SWEEPS.decrementAndGet();
+        }
+    }
+
+    /**
+     * Solves the first height and then the other heights within the allowed time, see {@link #pack(Parameters)}.
+     */
+    private Solution sweep(Parameters parameters) {
         parameters.freeHeightUtil = true; // make sure that (compound solver)
         Util.animate(parameters, subSolver);
 
@@ -50,19 +105,29 @@ public class FreeHeightUtil {
         parameters.height = (int) currentBestHeight;
         Solution bestSolution = subSolver.pack(parameters.copy());
         long endTime = System.nanoTime();
+        subSolver.report(bestSolution);
 
         long duration = Math.max((endTime - startTime) / 1000000, 1); // duration of subSolver.pack or 1 if too fast
 
         // Time allowed in milliseconds
         final int ALLOWED_TIME = 30000; // 25 seconds which leaves 5 seconds for other stuff
-        int numChecks = (int) (ALLOWED_TIME / duration); // amount of checks that can be done
+        long allowedTime = Math.min(ALLOWED_TIME, subSolver.getDeadline().remaining());
+        // The number of checks is an estimate, the heights stop at the allowed time regardless
+        sweepDeadline = subSolver.getDeadline().limit(allowedTime);
+        // amount of checks that can be done, the cores of the pool are shared with the other sweeps
+        int sweeps = Math.max(SWEEPS.get(), 1);
+        int numChecks = (int) Math.min(allowedTime * POOL.getParallelism() / (duration * sweeps), Integer.MAX_VALUE);
         if (Util.debug)
-            System.out.println("numChecks: " + numChecks);
-        // find best heights
-        if (numChecks >= numPossibleHeights) { // if more checks can be done than the max needed
-            bestSolution = tryAllHeightsFinder(parameters);
+            System.out.println("numChecks: " + numChecks + " (" + sweeps + " sweeps)");
+        // find best heights, the first solve is used as incumbent
+        if (numChecks == 0) {
+            if (Util.debug) System.out.println("Deadline expired after the first solve");
+        } else if (subSolver.getBoard().isOptimal()) {
+            if (Util.debug) System.out.println("First solve reached the lower bound");
+        } else if (numChecks >= numPossibleHeights) { // if more checks can be done than the max needed
+            bestSolution = tryAllHeightsFinder(parameters, bestSolution);
         } else {
-            bestSolution = localMinimaFinder(parameters, numChecks);
+            bestSolution = localMinimaFinder(parameters, numChecks, bestSolution);
         }
 
         // Set the amount of checks to be done
@@ -75,12 +140,17 @@ public class FreeHeightUtil {
 
     /**
      * Return best solution dependent on the height.
+     * <p>
+     *     Heights whose {@link #areaLowerBound(Parameters, int, int)} cannot beat the best solution so far are not
+     *     solved.
+     * </p>
      *
      * @param parameters of the problem
      * @param numChecks  number of checks to do at most
+     * @param incumbent  the best solution known before the search, solved with half the maximum height
      * @return best Solution found
      */
-    Solution localMinimaFinder(Parameters parameters, int numChecks) {
+    Solution localMinimaFinder(Parameters parameters, int numChecks, Solution incumbent) {
 
         // Starting conditions
         final long minimumHeight = Util.largestRect(parameters);
@@ -123,49 +193,50 @@ public class FreeHeightUtil {
             System.out.println("StepSize precision: " + stepSizePrecision);
         }
 
-        // set current bests with the maximum possible height
-        double currentBestHeight = maximumHeight / 2;
+        // set current bests with the incumbent, solved with half the maximum possible height
+        double currentBestHeight = incumbent != null ? incumbent.parameters.height : maximumHeight / 2;
         parameters.heightVariant = Util.HeightSupport.FIXED;
-        parameters.height = (int) currentBestHeight;
-        Solution bestSolution = subSolver.pack(parameters.copy());
+        Solution bestSolution = incumbent;
+        final int widest = widestRectangle(parameters);
 
+        perfectFound.set(false);
         int solves = 0; // used to record the number of solves for debug purposes
-        boolean firstIteration = true; // used to determine whether to record to chart or not
 
         // stepSize such that #checksPerIteration are done (larger means less precise) is made smaller each iteration
         int stepSize;
         // record heights that were tried already
-        ArrayList<Double> triedHeights = new ArrayList<>();
+        HashSet<Integer> triedHeights = new HashSet<>();
         do {
             // update stepSize
             stepSize = Math.max((int) ((stopRange - startRange) / checksPerIteration), 1);
             if (Util.debug) System.out.println("Stepsize: " + stepSize);
 
+            // Collect the heights of this iteration, these are solved in parallel
+            ArrayList<Integer> heights = new ArrayList<>();
             for (double newHeight = startRange + stepSize; newHeight <= stopRange - stepSize; newHeight += stepSize) {
-                if (triedHeights.contains(newHeight)) continue; // skip if already tried
-                Parameters params = parameters.copy();
-                params.height = (int) newHeight;
-                Solution newSolution = subSolver.pack(params);
-                solves++;
+                if (triedHeights.add((int) newHeight)) heights.add((int) newHeight); // skip if already tried
+            }
+            int[] boundedHeights = boundedHeights(parameters, widest, heights, bestSolution);
+            solves += boundedHeights.length;
 
-                if (newSolution == null) continue;
+            Solution newSolution = solveHeights(parameters, boundedHeights);
 
+            if (newSolution != null) {
                 if (newSolution.getRate() == 1.0d) {
                     return newSolution;
                 }
 
                 if (newSolution.isBetter(bestSolution)) {
                     // update bestSolution
-                    currentBestHeight = (int) newHeight;
+                    currentBestHeight = newSolution.parameters.height;
                     bestSolution = newSolution;
                 }
-                triedHeights.add(newHeight);
             }
 
             // update ranges around the best found value
             startRange = (int) Math.max(minimumHeight, currentBestHeight - stepSize);
             stopRange = (int) Math.min(maximumHeight, currentBestHeight + stepSize);
-        } while (stepSize > stepSizePrecision && numRecursions > 1);
+        } while (stepSize > stepSizePrecision && numRecursions > 1 && !isDone());
 
         if (Util.debug) System.out.println("Solves: " + solves);
         return bestSolution;
@@ -173,21 +244,44 @@ public class FreeHeightUtil {
 
     /**
      * Tries to find a solution with all height parameters and returns best solution found.
+     * <p>
+     *     The heights are visited from the best to the worst {@link #areaLowerBound(Parameters, int, int)} in
+     *     batches. Before every batch the heights whose bound cannot beat the best solution so far are dropped,
+     *     since the heights are sorted this ends the search as soon as the first remaining height is dropped.
+     * </p>
      *
      * @param parameters of the problem
+     * @param incumbent  the best solution known before the search, might be {@code null}
      * @return best Solution found
      */
-    Solution tryAllHeightsFinder(Parameters parameters) {
+    Solution tryAllHeightsFinder(Parameters parameters, Solution incumbent) {
         // Starting conditions
         final int minimumHeight = Util.largestRect(parameters);
         final int maximumHeight = Util.sumHeight(parameters);
+        final int widest = widestRectangle(parameters);
 
-        Solution bestSolution = null; // holds best solution found so far
+        ArrayList<Integer> allHeights = new ArrayList<>();
+        for (int height = minimumHeight; height <= maximumHeight; height++) {
+            allHeights.add(height);
+        }
+        int[] heights = boundedHeights(parameters, widest, allHeights, incumbent);
+
+        perfectFound.set(false);
+        Solution bestSolution = incumbent;
+        int batchSize = POOL.getParallelism() * BATCH_FACTOR;
+        int start = 0;
+        while (start < heights.length && !isDone()) {
+            // Take the next heights that can still beat the best solution
+            int end = start;
+            while (end < heights.length && end - start < batchSize
+                    && (bestSolution == null || areaLowerBound(parameters, widest, heights[end]) < bestSolution.getArea())) {
+                end++;
+            }
+            // Every remaining height has a worse bound
+            if (end == start) break;
 
-        for (int newHeight = minimumHeight; newHeight <= maximumHeight; newHeight++) {
-            Parameters params = parameters.copy();
-            params.height = newHeight;
-            Solution newSolution = subSolver.pack(params);
+            Solution newSolution = solveHeights(parameters, Arrays.copyOfRange(heights, start, end));
+            start = end;
 
             if (newSolution == null) continue; // not a good solution, skip
             if (newSolution.getRate() == 1.0d) {
@@ -201,4 +295,146 @@ public class FreeHeightUtil {
         }
         return bestSolution;
     }
+
+    /**
+     * Returns a lower bound on the area of any solution of the {@code parameters} with the given fixed height.
+     * <p>
+     *     The width of a solution is at least {@code ceil(minimumArea / height)} and at least the width of the
+     *     widest rectangle, so the area is at least {@code height} times the maximum of the two.
+     * </p>
+     *
+     * @param parameters the parameters of the problem
+     * @param widest     the width of the widest rectangle, see {@link #widestRectangle(Parameters)}
+     * @param height     the candidate height
+     * @return a lower bound on the area with the given height
+     */
+    static long areaLowerBound(Parameters parameters, int widest, int height) {
+        long widthBound = Math.max((parameters.getMinimumArea() + height - 1) / height, widest);
+        return widthBound * height;
+    }
+
+    /**
+     * Returns the smallest width the widest rectangle can be placed with.
+     * <p>
+     *     With rotations every candidate height is at least the longest side of every rectangle, see
+     *     {@link Util#largestRect(Parameters)}, so each rectangle can be placed on its shortest side.
+     * </p>
+     *
+     * @param parameters the parameters of the problem
+     * @return the width lower bound given by a single rectangle
+     */
+    static int widestRectangle(Parameters parameters) {
+        int widest = 0;
+        for (Rectangle rectangle : parameters.rectangles) {
+            int width = parameters.rotationVariant ? Math.min(rectangle.width, rectangle.height) : rectangle.width;
+            widest = Math.max(widest, width);
+        }
+        return widest;
+    }
+
+    /**
+     * Drops the {@code heights} whose area lower bound cannot beat the {@code incumbent}, and sorts the others from
+     * the best to the worst bound.
+     *
+     * @param parameters the parameters of the problem
+     * @param widest     the width of the widest rectangle, see {@link #widestRectangle(Parameters)}
+     * @param heights    the candidate heights
+     * @param incumbent  the best solution so far, might be {@code null}
+     * @return the remaining heights, best bound first
+     */
+    private int[] boundedHeights(Parameters parameters, int widest, ArrayList<Integer> heights, Solution incumbent) {
+        // Every height that was solved is on the board, also the ones of solvers that are still running
+        long incumbentArea = Math.min(incumbent != null ? incumbent.getArea() : Long.MAX_VALUE,
+                subSolver.getBoard().getBestArea());
+        return heights.stream()
+                .filter(height -> areaLowerBound(parameters, widest, height) < incumbentArea)
+                .sorted(Comparator.comparingLong((Integer height) -> areaLowerBound(parameters, widest, height))
+                        .thenComparingInt(height -> height))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Returns {@code true} if no more heights should be solved, because the allowed time is up or the best solution
+     * reached the lower bound of the {@link IncumbentBoard}.
+     */
+    private boolean isDone() {
+        return sweepDeadline.isExpired() || subSolver.getBoard().isOptimal();
+    }
+
+    /**
+     * Solves the {@code parameters} for every height in {@code heights} on the {@link #POOL}.
+     * <p>
+     *     The solutions are combined with {@link Solution#isBetter(Solution)}, on a tie the solution of the height
+     *     that comes first in {@code heights} is kept. Stops early once a height has a rate of 1.0.
+     * </p>
+     *
+     * @param parameters the parameters of the problem, which are only read
+     * @param heights    the candidate heights to try
+     * @return the best Solution found, or {@code null} if no height gave a solution
+     */
+    private Solution solveHeights(Parameters parameters, int[] heights) {
+        if (heights.length == 0) return null;
+        return POOL.invoke(new HeightTask(parameters, heights, 0, heights.length));
+    }
+
+    /**
+     * Solves the {@code parameters} for a single height with the {@code subSolver} of the current thread.
+     *
+     * @param parameters the parameters of the problem, which are only read
+     * @param height     the height to solve for
+     * @return the Solution found by the subSolver
+     */
+    private Solution solveHeight(Parameters parameters, int height) {
+        Parameters params = parameters.copy();
+        params.height = height;
+        AbstractSolver solver = threadSolver.get();
+        solver.setDeadline(sweepDeadline);
+        solver.setProgress(subSolver.getProgress());
+        Solution solution = solver.pack(params);
+        solver.report(solution);
+        return solution;
+    }
+
+    /**
+     * Task solving the candidate heights {@code heights[from, to)} by splitting the range in halves.
+     */
+    private class HeightTask extends RecursiveTask<Solution> {
+        private static final long serialVersionUID = 1L;
+
+        private final Parameters parameters;
+        private final int[] heights;
+        private final int from;
+        private final int to;
+
+        HeightTask(Parameters parameters, int[] heights, int from, int to) {
+            this.parameters = parameters;
+            this.heights = heights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Solution compute() {
+            if (to - from == 1) {
+                if (perfectFound.get() || isDone()) return null;
+                Solution solution = solveHeight(parameters, heights[from]);
+                if (solution != null && solution.getRate() == 1.0d) perfectFound.set(true);
+                return solution;
+            }
+
+            int middle = (from + to) >>> 1;
+            HeightTask left = new HeightTask(parameters, heights, from, middle);
+            HeightTask right = new HeightTask(parameters, heights, middle, to);
+            // Fork the right half so that the lower heights are tried first
+            right.fork();
+            Solution leftSolution = left.compute();
+            Solution rightSolution = right.join();
+
+            if (rightSolution == null) return leftSolution;
+            if (leftSolution == null) return rightSolution;
+            if (rightSolution.getRate() == 1.0d) return rightSolution;
+            return rightSolution.isBetter(leftSolution) ? rightSolution : leftSolution;
+        }
+    }
 }
@@ -1,4 +1,8 @@
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 
 /**
  * Utility class to apply to any solver to iteratively mutate
@@ -6,9 +10,32 @@ import java.util.*;
  * For strip-packing only! (fitness function depends on it)
  */
 public class GeneticSolver extends AbstractSolver {
+
+    /**
+     * Number of generations between two migrations of an island.
+     */
+    static final int MIGRATION_INTERVAL = 20;
+
+    /**
+     * Time in milliseconds the islands evolve, unless the deadline of the solve expires earlier.
+     */
+    static final long TIME_LIMIT = 3000;
+
+    /**
+     * Number of its best permutations an island sends to the next island in a migration.
+     */
+    static final int MIGRANTS = 2;
+
     private AbstractSolver solver;
     private Parameters parameters;
 
+    /**
+     * Number of populations that are evolved at the same time, each on its own worker.
+     */
+    private final int islands;
+
+    private volatile int immigrants = 0;
+
     @Override
     Set<Util.HeightSupport> getHeightSupport() {
         return new HashSet<>(Arrays.asList(Util.HeightSupport.FIXED));
@@ -22,101 +49,349 @@ public class GeneticSolver extends AbstractSolver {
         return parameters.rectangles.size() <= 500;
     }
 
+    /**
+     * Creates a genetic solver with an island per worker of the {@link SolverPool}.
+     *
+     * @see #GeneticSolver(AbstractSolver, boolean, int)
+     */
     public GeneticSolver(AbstractSolver solver, boolean allowInputSorting) {
+        this(solver, allowInputSorting, SolverPool.getParallelism());
+    }
+
+    /**
+     * Creates a genetic solver that evolves {@code islands} populations at the same time.
+     * <p>
+     *     Every island has its own copy of the solver and the parameters and runs on a worker of the
+     *     {@link SolverPool}, the first island runs on the calling thread. A solve only uses the islands there are idle
+     *     workers for, and a single island when it is nested in the {@link FreeHeightUtil}. Every
+     *     {@link #MIGRATION_INTERVAL} generations an island sends its best permutations to the next island in a ring.
+     *     The best solution of all islands is returned, and all islands stop as soon as one of them finds a solution
+     *     with a rate of 1.0. With a single island this is the same as the genetic solver without islands.
+     * </p>
+     *
+     * @param solver            the solver that decodes a permutation into a solution
+     * @param allowInputSorting if the order of the rectangles may be changed
+     * @param islands           the number of populations
+     */
+    public GeneticSolver(AbstractSolver solver, boolean allowInputSorting, int islands) {
         super(allowInputSorting);
         this.solver = solver;
+        this.islands = Math.max(1, islands);
     }
 
     @Override
     Solution pack(Parameters parameters) {
         this.parameters = parameters.copy();
+        this.solver.setDeadline(deadline);
 
         // If we are not allowed to change the input order or rotate rectangles
         if (!this.allowInputSorting && !parameters.rotationVariant) {
             return this.solver.pack(this.parameters);
         }
 
-        // Array {a} holds the indexes of the rectangles list.
-        // In the genetic algorithm, this will be mutated.
-        int[] a = new int[parameters.rectangles.size()];
-        for (int i = 0; i < a.length; i++) {
-            a[i] = i;
+        Incumbent incumbent = new Incumbent(deadline.limit(TIME_LIMIT));
+        long startTime = System.nanoTime();
+
+        // Every island gets its own copies before any of them starts changing the rectangles
+        int count = getIslandCount(parameters);
+        List<Queue<int[]>> inboxes = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+        Island[] population = new Island[count];
+        population[0] = new Island(this.solver, parameters, this.parameters, incumbent, startTime, inboxes, 0);
+        for (int k = 1; k < count; k++) {
+            population[k] = new Island(solver.copy(), parameters.copy(), parameters.copy(), incumbent, startTime,
+                    inboxes, k);
         }
 
-        // Create the first permutations of rectangles
-        int nPermutations = 10;
-        int[][] permutations = shuffle(a, nPermutations);
-        Solution bestSolution = null;
+        // The other islands run on the shared pool, one that has not started when the first island stops never runs
+        List<Future<?>> futures = new ArrayList<>();
+        for (int k = 1; k < count; k++) {
+            futures.add(SolverPool.getExecutor().submit(population[k]::run));
+        }
+        population[0].run();
 
-        // Run at most 10000 generations, or take at most 1 sec
-        int nGenerations = 10000;
-        int i;
-        long duration;
-        long startTime = System.nanoTime();
+        // The first island stops at the same deadline, or when this thread is interrupted
+        incumbent.stop();
+        for (Future<?> future : futures) {
+            if (future.cancel(false)) continue;
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+        int received = 0;
+        for (Island island : population) {
+            received += island.received;
+        }
+        immigrants = received;
+
+        Parameters.Snapshot bestSnapshot = incumbent.getSnapshot();
+        return bestSnapshot != null ? new Solution(bestSnapshot.materialize(), this) : this.solver.pack(this.parameters);
+    }
+
+    /**
+     * Returns the number of islands of a solve of the {@code parameters}.
+     * <p>
+     *     A solve that is already one of many parallel solves, the heights of the {@link FreeHeightUtil} or the
+     *     workers of a {@link SolverPool} that is busy, only gets the islands there is an idle worker for. Otherwise
+     *     the nested solves would start an island per core each.
+     * </p>
+     */
+    private int getIslandCount(Parameters parameters) {
+        if (islands == 1 || parameters.freeHeightUtil || ForkJoinTask.inForkJoinPool()) return 1;
+        return Math.min(islands, 1 + SolverPool.getIdleWorkers());
+    }
+
+    /**
+     * Returns the number of permutations the islands received from other islands in the last solve.
+     */
+    int getImmigrants() {
+        return immigrants;
+    }
+
+    @Override
+    AbstractSolver copy() {
+        return new GeneticSolver(solver.copy(), allowInputSorting, islands);
+    }
+
+    /**
+     * A single population with its own decoder and parameters.
+     */
+    private class Island {
+        private final AbstractSolver solver;
+        // The rectangles the permutations refer to
+        private final Parameters source;
+        // The parameters that are reordered for every permutation and given to the solver
+        private final Parameters parameters;
+        private final Incumbent incumbent;
+        private final long startTime;
+        private final Queue<int[]> inbox;
+        private final Queue<int[]> next;
+        private int received = 0;
+
+        Island(AbstractSolver solver, Parameters source, Parameters parameters, Incumbent incumbent, long startTime,
+               List<Queue<int[]>> inboxes, int index) {
+            this.solver = solver;
+            this.source = source;
+            this.parameters = parameters;
+            this.incumbent = incumbent;
+            this.startTime = startTime;
+            // A decoder with more than one attempt stops after the attempt during which the time is up
+            this.solver.setDeadline(incumbent.budget);
+            this.inbox = inboxes.get(index);
+            // A single island has nobody to migrate to
+            this.next = inboxes.size() > 1 ? inboxes.get((index + 1) % inboxes.size()) : null;
+        }
+
+        void run() {
+            // Array {a} holds the indexes of the rectangles list.
+            // In the genetic algorithm, this will be mutated.
+            int[] a = new int[source.rectangles.size()];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = i;
+            }
+
+            // Create the first permutations of rectangles
+            int nPermutations = 10;
+            int[][] permutations = shuffle(a, nPermutations);
+            double bestRate = Double.MAX_VALUE;
+            boolean found = false;
+
+            // Run at most 10000 generations, or until the time limit
+            int nGenerations = 10000;
+            int i;
+            long duration;
+
+            // Each crossover will generate 3 new permutations per permutation
+            int nRectangles = source.rectangles.size();
+            for (i = 1; i <= nGenerations; i++) {
+                duration = (System.nanoTime() - startTime) / 1000000;
+                // Stop at the time limit, when another island found an optimal solution or when the solve is cancelled
+                if (incumbent.isStopped() || Thread.currentThread().isInterrupted()) break;
+                // Or when a solution of this or another solver reached the lower bound
+                if (getBoard().isOptimal()) {
+                    if (Util.debug) System.out.println("lower bound reached after " + i + " generations");
+                    incumbent.stop();
+                    break;
+                }
+
+                // Each permutation generates 2 new permutations
+                permutations = immigrate(crossover(permutations));
+
+                // Decode in lexicographic order, so the decoder can continue from the prefix the previous one shares
+                Arrays.sort(permutations, GeneticSolver::compare);
 
-        // Each crossover will generate 3 new permutations per permutation
-        int nRectangles = parameters.rectangles.size();
-        for (i = 1; i <= nGenerations; i++) {
-            // Stop if 3 seconds has elapsed
-            duration = (System.nanoTime() - startTime) / 1000000;
-            if (duration >= 3000) break;
-
-            // Each permutation generates 2 new permutations
-            permutations = crossover(permutations);
-
-            // Solve for all crossovers
-            Map<int[], Solution> results = new HashMap<>();
-            for (int[] perm : permutations) {
-                // Set the order of the rectangles as described by the permutation
-                for (int j = 0; j < nRectangles; j++) {
-                    this.parameters.rectangles.set(j, parameters.rectangles.get(Math.abs(perm[j])));
-                    if (this.parameters.rotationVariant) {
-                        Rectangle rectJ = this.parameters.rectangles.get(j);
-                        if (this.parameters.heightVariant == Util.HeightSupport.FIXED
-                                && rectJ.getHeight() > this.parameters.height) {
-                            this.parameters.rectangles.get(j).rotate();
-                        } else if (this.parameters.heightVariant == Util.HeightSupport.FREE
-                                || rectJ.getWidth() < this.parameters.height) {
-                            this.parameters.rectangles.get(j).rotate(perm[j] < 0);
-                        }
+                // Solve for all crossovers
+                List<Evaluation> solutions = new ArrayList<>(permutations.length);
+                for (int[] perm : permutations) {
+                    // Calculate the solution and the solution score
+                    Solution pack = decode(perm, nRectangles);
+                    pack.setScore(fitnessFunction(pack));
+                    solutions.add(new Evaluation(perm, pack));
+                }
+
+                // Sort the solutions by their score and pick the new contender
+                solutions.sort((r1, r2) -> Double.compare(r2.score, r1.score));
+                int x = 0;
+                Evaluation contenderSolution = solutions.get(x);
+                while (this.parameters.heightVariant == Util.HeightSupport.FIXED
+                        && contenderSolution.height > this.parameters.height && x < solutions.size()) {
+                    x++;
+                    contenderSolution = solutions.get(x);
+                }
+
+                // Compare the contender to the best solution yet
+                if (x < solutions.size()) {
+                    if (!found || contenderSolution.rate < bestRate) {
+                        if (Util.debug) System.out.println("new rate "+i+" after "+(double)duration / 1000+"s:" + contenderSolution.rate);
+                        Solution best = solutions.get(0).solution;
+                        bestRate = best.getRate();
+                        found = true;
+                        incumbent.offer(best.parameters.snapshot(), bestRate);
+                        report(new Solution(best.parameters, GeneticSolver.this));
+                        if (bestRate == 1) break;
                     }
                 }
 
-                // Calculate the solution and the solution score
-                Solution pack = this.solver.pack(this.parameters);
-                pack.setScore(fitnessFunction(pack));
-                results.put(perm, pack);
-            }
+                // The permutations we will go on with are the best ones
+                permutations = new int[nPermutations][permutations[0].length];
+                for (int j = 0; j < nPermutations; j++) {
+                    permutations[j] = solutions.get(j).permutation;
+                }
 
-            // Sort the solutions by their score and pick the new contender
-            List<Map.Entry<int[], Solution>> solutions = new ArrayList<>(results.entrySet());
-            solutions.sort((r1, r2) -> Double.compare(r2.getValue().getScore(), r1.getValue().getScore()));
-            int x = 0;
-            Solution contenderSolution = solutions.get(x).getValue();
-            while (this.parameters.heightVariant == Util.HeightSupport.FIXED
-                    && contenderSolution.getHeight() > this.parameters.height && x < solutions.size()) {
-                x++;
-                contenderSolution = solutions.get(x).getValue();
+                if (next != null && i % MIGRATION_INTERVAL == 0) {
+                    for (int j = 0; j < MIGRANTS; j++) {
+                        next.offer(permutations[j].clone());
+                    }
+                }
             }
 
-            // Compare the contender to the best solution yet
-            if (x < solutions.size()) {
-                if (bestSolution == null || contenderSolution.getRate() < bestSolution.getRate()) {
-                    if (Util.debug) System.out.println("new rate "+i+" after "+(double)duration / 1000+"s:" + contenderSolution.getRate());
-                    bestSolution = solutions.get(0).getValue().copy();
-                    if (bestSolution.getRate() == 1) break;
+            if (Util.debug) System.out.println("generations: " + i);
+        }
+
+        /**
+         * Orders and rotates the rectangles as described by the permutation and solves them.
+         */
+        private Solution decode(int[] perm, int nRectangles) {
+            // Set the order of the rectangles as described by the permutation
+            for (int j = 0; j < nRectangles; j++) {
+                Rectangle rectJ = source.rectangles.get(Math.abs(perm[j]));
+                this.parameters.rectangles.set(j, rectJ);
+                if (this.parameters.rotationVariant) {
+                    // The orientation only depends on the permutation, so the same permutation gives the same packing
+                    rectJ.rotate(isRotated(rectJ, perm[j] < 0));
                 }
             }
+            return this.solver.pack(this.parameters);
+        }
+
+        /**
+         * Returns whether the rectangle is rotated when the permutation asks for {@code rotated}.
+         * <p>
+         *     With a fixed height a rectangle that only fits in one orientation gets that orientation, whatever the
+         *     permutation asks for.
+         * </p>
+         */
+        private boolean isRotated(Rectangle rectangle, boolean rotated) {
+            if (this.parameters.heightVariant != Util.HeightSupport.FIXED) return rotated;
+            // The sides of the rectangle as it was in the input
+            int width = rectangle.isRotated() ? rectangle.height : rectangle.width;
+            int height = rectangle.isRotated() ? rectangle.width : rectangle.height;
+            if (height > this.parameters.height) return true;
+            if (width > this.parameters.height) return false;
+            return rotated;
+        }
+
+        /**
+         * Adds the permutations other islands sent to the population, at most {@link #MIGRANTS} of them.
+         */
+        private int[][] immigrate(int[][] permutations) {
+            if (next == null) return permutations;
+            List<int[]> immigrants = new ArrayList<>();
+            int[] immigrant;
+            while ((immigrant = inbox.poll()) != null) {
+                // Only the most recent ones, an island that is behind should not be flooded
+                if (immigrants.size() == MIGRANTS) immigrants.remove(0);
+                immigrants.add(immigrant);
+            }
+            if (immigrants.isEmpty()) return permutations;
+            received += immigrants.size();
+
+            int[][] result = Arrays.copyOf(permutations, permutations.length + immigrants.size());
+            for (int j = 0; j < immigrants.size(); j++) {
+                result[permutations.length + j] = immigrants.get(j);
+            }
+            return result;
+        }
+    }
 
-            // The permutations we will go on with are the best ones
-            permutations = new int[nPermutations][permutations[0].length];
-            for (int j = 0; j < nPermutations; j++) {
-                permutations[j] = solutions.get(j).getKey();
+    /**
+     * Compares two permutations of the same length lexicographically.
+     */
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+        }
+        return 0;
+    }
+
+    /**
+     * A permutation with the solution it was decoded into.
+     */
+    private static final class Evaluation {
+        private final int[] permutation;
+        private final double score;
+        private final double rate;
+        private final long height;
+        private final Solution solution;
+
+        Evaluation(int[] permutation, Solution solution) {
+            this.permutation = permutation;
+            this.score = solution.getScore();
+            this.rate = solution.getRate();
+            this.height = solution.getHeight();
+            this.solution = solution;
+        }
+    }
+
+    /**
+     * Best solution of all islands.
+     */
+    private static final class Incumbent {
+        // Time of the islands, cancelled when a solution with a rate of 1.0 is found
+        private final Deadline budget;
+        private Parameters.Snapshot snapshot;
+        private double rate = Double.MAX_VALUE;
+
+        Incumbent(Deadline budget) {
+            this.budget = budget;
+        }
+
+        synchronized void offer(Parameters.Snapshot snapshot, double rate) {
+            if (this.snapshot == null || rate < this.rate) {
+                this.snapshot = snapshot;
+                this.rate = rate;
             }
+            if (rate == 1) budget.cancel();
         }
 
-        if (Util.debug) System.out.println("generations: " + i);
-        return bestSolution != null ? new Solution(bestSolution.parameters, this) : this.solver.pack(this.parameters);
+        synchronized Parameters.Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        boolean isStopped() {
+            return budget.isExpired();
+        }
+
+        void stop() {
+            budget.cancel();
+        }
     }
 
     protected double fitnessFunction(Solution solution) {
@@ -179,10 +454,8 @@ public class GeneticSolver extends AbstractSolver {
         // ArrayList holding all the segments we sweep over.
         ArrayList<Util.Segment> segments = new ArrayList<>();
 
-        // Copy parameters to prevent interference with the original result
-        Parameters parameters = solution.parameters.copy();
-
-        for (Rectangle rectangle : parameters.rectangles) {
+        // The rectangles are only read, the segments keep a reference to them
+        for (Rectangle rectangle : solution.parameters.rectangles) {
             segments.add(new Util.Segment(Util.Type.END, rectangle.y, rectangle.y + rectangle.height,
                     rectangle.x + rectangle.width, rectangle));
         }
@@ -0,0 +1,53 @@
+/**
+ * Receives every solution that is better than the solutions found before it during an asynchronous solve.
+ * <p>
+ *     The listener is called on the threads of the solvers, so it should return quickly and must be thread safe.
+ *     Calls never overlap and the areas only go down.
+ * </p>
+ *
+ * @see AbstractSolver#solveAsync(Parameters, Deadline, ImprovementListener)
+ */
+public interface ImprovementListener {
+
+    /**
+     * Called when a solver found a better solution.
+     *
+     * @param improvement the solution and its statistics
+     */
+    void improved(Improvement improvement);
+
+    /**
+     * A solution found during a solve, with the statistics of when it was found.
+     */
+    final class Improvement {
+        /**
+         * A copy of the solution, which is not changed by the solver anymore.
+         */
+        public final Solution solution;
+        public final long area;
+        public final double rate;
+
+        /**
+         * The simple class name of the solver that found the solution.
+         */
+        public final String solver;
+
+        /**
+         * Time in milliseconds from the start of the solve.
+         */
+        public final long elapsed;
+
+        Improvement(Solution solution, String solver, long elapsed) {
+            this.solution = solution;
+            this.area = solution.getArea();
+            this.rate = solution.getRate();
+            this.solver = solver;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return solver + " found " + area + " (rate " + rate + ") after " + elapsed + "ms";
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.*;
+
+/**
+ * Adds rectangles to a solution that was already found, without solving everything again.
+ * <p>
+ *     The packer keeps the profile of the solution: for every y the x where the free space to the right of the
+ *     placed rectangles starts. It is stored as a {@link TreeMap} from the start of an interval of y to its x, so a
+ *     new rectangle is put at the leftmost position of the profile where it fits, like the {@link SkylineSolver} does.
+ *     The profile is made once when the packer is created, after that adding a rectangle only depends on the number
+ *     of intervals in the profile and not on the number of rectangles that are already placed.
+ * </p>
+ * <p>
+ *     Placing rectangles one by one gets worse than solving them all at once. When the rate of the solution is more
+ *     than {@link #getRepackThreshold()} worse than it was, the rectangles that reach the furthest to the right are
+ *     taken out and placed again from large to small, at most {@link #getMaxRepack()} of them. This repack goes over
+ *     all rectangles, so it is only done when the threshold is passed. The result is only kept if it is narrower.
+ * </p>
+ * <p>
+ *     For the free height variant the height of the given solution is used as the height of the strip, and the
+ *     strip is made higher for a new rectangle that does not fit otherwise.
+ * </p>
+ */
+public class IncrementalPacker {
+
+    /**
+     * Default relative increase of the rate that triggers a repack.
+     */
+    static final double DEFAULT_REPACK_THRESHOLD = 0.05;
+
+    /**
+     * Default maximum number of rectangles that are placed again in a repack.
+     */
+    static final int DEFAULT_MAX_REPACK = 100;
+
+    private final Parameters parameters;
+    private int height;
+    private TreeMap<Integer, Integer> profile;
+    private long width;
+
+    // Rate the threshold is compared to, the rate after the creation or after the last repack
+    private double referenceRate;
+    private double repackThreshold = DEFAULT_REPACK_THRESHOLD;
+    private int maxRepack = DEFAULT_MAX_REPACK;
+
+    /**
+     * Creates a packer that adds rectangles to a copy of the solution.
+     *
+     * @param solution a valid solution, every rectangle should be placed
+     */
+    public IncrementalPacker(Solution solution) {
+        this.parameters = solution.parameters.copy();
+        if (parameters.heightVariant == Util.HeightSupport.FIXED) {
+            height = parameters.height;
+        } else {
+            height = Math.max(1, Util.maxHeight(parameters.rectangles));
+        }
+        profile = buildProfile(parameters.rectangles, height);
+        width = 0;
+        for (Rectangle rectangle : parameters.rectangles) {
+            width = Math.max(width, rectangle.x + rectangle.width);
+        }
+        referenceRate = getRate();
+    }
+
+    public double getRepackThreshold() {
+        return repackThreshold;
+    }
+
+    /**
+     * Sets the relative increase of the rate after which the rightmost rectangles are placed again.
+     *
+     * @param repackThreshold for example {@code 0.05} to repack when the rate is more than 5% worse
+     * @return this IncrementalPacker
+     */
+    public IncrementalPacker setRepackThreshold(double repackThreshold) {
+        this.repackThreshold = repackThreshold;
+        return this;
+    }
+
+    public int getMaxRepack() {
+        return maxRepack;
+    }
+
+    /**
+     * Sets the maximum number of rectangles that are placed again in a repack.
+     *
+     * @return this IncrementalPacker
+     */
+    public IncrementalPacker setMaxRepack(int maxRepack) {
+        this.maxRepack = maxRepack;
+        return this;
+    }
+
+    /**
+     * Places the rectangles next to the rectangles that are already placed.
+     *
+     * @param rectangles the new rectangles, which become part of the solution
+     * @return the solution with the new rectangles, see {@link #getSolution()}
+     * @throws IllegalArgumentException if a rectangle does not fit in the fixed height
+     */
+    public Solution add(List<Rectangle> rectangles) {
+        for (Rectangle rectangle : rectangles) {
+            fit(rectangle);
+        }
+        parameters.addRectangles(rectangles);
+        for (Rectangle rectangle : rectangles) {
+            place(profile, rectangle);
+            width = Math.max(width, rectangle.x + rectangle.width);
+        }
+
+        if (getRate() > referenceRate * (1 + repackThreshold)) {
+            repack();
+            referenceRate = getRate();
+        }
+        return getSolution();
+    }
+
+    /**
+     * Returns the current solution.
+     * <p>
+     *     The parameters of the solution are the ones of this packer and change when rectangles are added.
+     * </p>
+     *
+     * @return the solution with all rectangles that were added so far
+     */
+    public Solution getSolution() {
+        return new Solution(parameters);
+    }
+
+    /**
+     * Returns the rate of the current solution without going over all rectangles, the same as {@link Solution#getRate()}
+     * for the fixed height variant. For the free height variant the height of the strip is used.
+     */
+    double getRate() {
+        return (double) (width * height) / parameters.getMinimumArea();
+    }
+
+    /**
+     * Rotates the rectangle if it does not fit otherwise, or makes a free height strip higher.
+     */
+    private void fit(Rectangle rectangle) {
+        if (rectangle.height <= height) return;
+        if (parameters.rotationVariant && rectangle.width <= height) {
+            rectangle.rotate();
+        } else if (parameters.heightVariant == Util.HeightSupport.FREE || parameters.freeHeightUtil) {
+            // The new part of the strip is empty
+            profile.put(height, 0);
+            height = rectangle.height;
+            profile.put(height, Integer.MAX_VALUE);
+        } else {
+            throw new IllegalArgumentException("A rectangle of " + rectangle.width + " by " + rectangle.height
+                    + " does not fit in a height of " + height);
+        }
+    }
+
+    /**
+     * Places the rectangle at the leftmost position of the profile and updates the profile.
+     * If rotations are allowed both orientations are tried.
+     */
+    private void place(TreeMap<Integer, Integer> profile, Rectangle rectangle) {
+        int[] best = leftmost(profile, rectangle.width, rectangle.height);
+        if (parameters.rotationVariant && rectangle.width <= height) {
+            int[] rotated = leftmost(profile, rectangle.height, rectangle.width);
+            if (rotated[0] + rectangle.height < best[0] + rectangle.width) {
+                rectangle.rotate();
+                best = rotated;
+            }
+        }
+        rectangle.setLocation(best[0], best[1]);
+        rectangle.place(true);
+        fill(profile, best[1], best[1] + rectangle.height, best[0] + rectangle.width);
+    }
+
+    /**
+     * Returns the leftmost {x, y} where a rectangle of the given size fits, the lowest y if there is a tie.
+     * Only the starts of the intervals of the profile have to be tried.
+     */
+    private int[] leftmost(TreeMap<Integer, Integer> profile, int rectangleWidth, int rectangleHeight) {
+        int bestX = Integer.MAX_VALUE;
+        int bestY = 0;
+        for (Map.Entry<Integer, Integer> start : profile.headMap(height - rectangleHeight, true).entrySet()) {
+            int y = start.getKey();
+            // The rectangle has to be right of every interval it overlaps
+            int x = start.getValue();
+            for (int value : profile.subMap(y, false, y + rectangleHeight, false).values()) {
+                x = Math.max(x, value);
+                if (x >= bestX) break;
+            }
+            if (x < bestX) {
+                bestX = x;
+                bestY = y;
+            }
+        }
+        return new int[]{bestX, bestY};
+    }
+
+    /**
+     * Sets the profile from {@code yStart} up to {@code yEnd} to {@code x}.
+     */
+    private static void fill(TreeMap<Integer, Integer> profile, int yStart, int yEnd, int x) {
+        // The value that continues after yEnd
+        Integer after = profile.floorEntry(yEnd).getValue();
+        profile.subMap(yStart, true, yEnd, true).clear();
+        profile.put(yStart, x);
+        profile.put(yEnd, after);
+
+        // Merge intervals with the same x
+        Map.Entry<Integer, Integer> below = profile.lowerEntry(yStart);
+        if (below != null && below.getValue() == x) profile.remove(yStart);
+        if (after == x) profile.remove(yEnd);
+    }
+
+    /**
+     * Returns the profile of the rectangles in a strip of the given height.
+     */
+    private static TreeMap<Integer, Integer> buildProfile(List<Rectangle> rectangles, int height) {
+        TreeMap<Integer, Integer> profile = new TreeMap<>();
+        profile.put(0, 0);
+        // The key at the height is the end of the strip and is never a place for a rectangle
+        profile.put(height, Integer.MAX_VALUE);
+
+        // From left to right, so every rectangle overwrites the ones it is right of
+        List<Rectangle> sorted = new ArrayList<>(rectangles);
+        sorted.sort(Comparator.comparingInt(rectangle -> rectangle.x + rectangle.width));
+        for (Rectangle rectangle : sorted) {
+            if (rectangle.height <= 0) continue;
+            fill(profile, rectangle.y, Math.min(height, rectangle.y + rectangle.height), rectangle.x + rectangle.width);
+        }
+        return profile;
+    }
+
+    /**
+     * Places the rectangles that reach the furthest to the right again, if that makes the solution narrower.
+     */
+    private void repack() {
+        List<Rectangle> rectangles = new ArrayList<>(parameters.rectangles);
+        rectangles.sort(Comparator.comparingInt(rectangle -> -(rectangle.x + rectangle.width)));
+        List<Rectangle> tail = new ArrayList<>(rectangles.subList(0, Math.min(maxRepack, rectangles.size())));
+        List<Rectangle> remaining = rectangles.subList(tail.size(), rectangles.size());
+
+        // Remember where the tail was, to undo the repack if it is not better
+        int[][] old = new int[tail.size()][];
+        for (int i = 0; i < tail.size(); i++) {
+            Rectangle rectangle = tail.get(i);
+            old[i] = new int[]{rectangle.x, rectangle.y, rectangle.isRotated() ? 1 : 0};
+        }
+
+        TreeMap<Integer, Integer> repacked = buildProfile(remaining, height);
+        long repackedWidth = 0;
+        for (Rectangle rectangle : remaining) {
+            repackedWidth = Math.max(repackedWidth, rectangle.x + rectangle.width);
+        }
+        // From large to small, in a new list because old is indexed by the position in the tail
+        List<Rectangle> order = new ArrayList<>(tail);
+        order.sort(Comparator.comparingInt((Rectangle rectangle) -> Math.max(rectangle.width, rectangle.height))
+                .thenComparingInt(rectangle -> rectangle.width * rectangle.height).reversed());
+        for (Rectangle rectangle : order) {
+            if (rectangle.height > height) rectangle.rotate();
+            place(repacked, rectangle);
+            repackedWidth = Math.max(repackedWidth, rectangle.x + rectangle.width);
+        }
+
+        if (repackedWidth < width) {
+            if (Util.debug) System.err.println("Repacked " + tail.size() + " rectangles, width " + width + " to " + repackedWidth);
+            profile = repacked;
+            width = repackedWidth;
+            return;
+        }
+        for (int i = 0; i < tail.size(); i++) {
+            Rectangle rectangle = tail.get(i);
+            rectangle.rotate(old[i][2] == 1);
+            rectangle.setLocation(old[i][0], old[i][1]);
+        }
+    }
+}
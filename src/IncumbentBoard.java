@@ -0,0 +1,94 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the solvers of a single solve have learned so far, shared between all of them.
+ * <p>
+ *     The board keeps the best width found for every container height, the best solution and the best known lower
+ *     bound on the area. Solvers write to it through {@link AbstractSolver#report(Solution)} and read it to prune: a
+ *     solver does not have to find a solution that is wider than the best width for its height, and the solve is done
+ *     when the best area reaches the lower bound. In a {@link CompoundSolver} or {@link FreeHeightUtil} every solver
+ *     gets the same board, see {@link AbstractSolver#getBoard()}.
+ * </p>
+ * <p>
+ *     All methods are thread safe.
+ * </p>
+ */
+public class IncumbentBoard {
+
+    // Container height to the best width for that height
+    private final ConcurrentHashMap<Integer, Long> widths = new ConcurrentHashMap<>();
+    private final AtomicLong lowerBound = new AtomicLong(0);
+
+    private Solution best = null;
+    private long bestArea = Long.MAX_VALUE;
+
+    /**
+     * Stores the width of the solution for its height, and a copy of the solution if it is the best one so far.
+     *
+     * @param solution a valid solution
+     */
+    public void offer(Solution solution) {
+        long width = solution.getWidth();
+        long height = solution.getHeight();
+        // Overflow, or a free height solution that was not solved
+        if (width <= 0 || height <= 0 || height > Integer.MAX_VALUE) return;
+        widths.merge((int) height, width, Math::min);
+
+        long area = width * height;
+        synchronized (this) {
+            if (area >= bestArea) return;
+            bestArea = area;
+            best = solution.copy();
+        }
+    }
+
+    /**
+     * Stores a lower bound on the area of every solution, if it is better than the known one.
+     *
+     * @param area the lower bound
+     */
+    public void offerLowerBound(long area) {
+        lowerBound.accumulateAndGet(area, Math::max);
+    }
+
+    /**
+     * Returns the smallest width found for the container height.
+     *
+     * @return the width, or {@link Long#MAX_VALUE} if no solution with this height was offered
+     */
+    public long getBestWidth(int height) {
+        return widths.getOrDefault(height, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the smallest area found.
+     *
+     * @return the area, or {@link Long#MAX_VALUE} if no solution was offered
+     */
+    public synchronized long getBestArea() {
+        return bestArea;
+    }
+
+    /**
+     * Returns the best solution if it has the given container height.
+     *
+     * @param height the container height of the solution
+     * @return the best solution, which should not be changed, or {@code null} if it has another height
+     */
+    public synchronized Solution getBestSolution(int height) {
+        if (best == null || best.getHeight() != height) return null;
+        return best;
+    }
+
+    public long getLowerBound() {
+        return lowerBound.get();
+    }
+
+    /**
+     * Returns {@code true} if the best area is the lower bound, so no solver can find a better solution.
+     */
+    public synchronized boolean isOptimal() {
+        return bestArea <= lowerBound.get();
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Lower bounds on the width of a packing with a fixed height.
+ * <p>
+ *     These are the classic strip packing bounds, with the container height as the width of the strip. Every
+ *     vertical line through the packing crosses rectangles whose heights add up to at most the container height, so
+ *     any function {@code f} of the height with {@code f(h1) + ... + f(hk) <= 1} whenever {@code h1 + ... + hk <= H}
+ *     gives the bound {@code w1 * f(h1) + ... + wn * f(hn)}. These functions are called dual feasible functions. The
+ *     tall item, Martello-Monaci-Vigo and Fekete-Schepers bounds all use such a function.
+ * </p>
+ * <p>
+ *     With rotations a rectangle can be placed either way, as long as it fits in the height. Each bound then counts
+ *     every rectangle with the orientation that gives the smallest contribution, which is still a lower bound.
+ * </p>
+ * <p>
+ *     All bounds take at most O(n log n) time for n rectangles, see {@link #getWidth(Parameters)} for the best one.
+ * </p>
+ */
+public class LowerBounds {
+
+    /**
+     * Largest {@code k} of the Fekete-Schepers functions that is tried, see {@link #dualFeasible(Parameters)}.
+     */
+    static final int MAX_K = 10;
+
+    /**
+     * Number of values of {@code alpha} that are tried in {@link #martelloMonaciVigo(Parameters)} with rotations.
+     */
+    static final int ALPHA_SAMPLES = 16;
+
+    /**
+     * Contribution of a rectangle in one orientation to a bound.
+     */
+    @FunctionalInterface
+    private interface Contribution {
+        long of(long width, long height);
+    }
+
+    /**
+     * Returns the best lower bound on the width of any packing of the {@code parameters} with their fixed height.
+     *
+     * @param parameters the parameters with a fixed height
+     * @return the largest of all bounds of this class
+     */
+    public static long getWidth(Parameters parameters) {
+        long bound = Math.max(continuous(parameters), longestItem(parameters));
+        bound = Math.max(bound, martelloMonaciVigo(parameters));
+        return Math.max(bound, dualFeasible(parameters));
+    }
+
+    /**
+     * Returns a lower bound on the area of any packing of the {@code parameters}.
+     * <p>
+     *     With a free height any height can be chosen, so only the area of the rectangles themselves is a bound.
+     * </p>
+     *
+     * @param parameters the parameters to bound
+     * @return {@link #getWidth(Parameters)} times the height, or the total area of the rectangles for a free height
+     */
+    public static long getArea(Parameters parameters) {
+        if (parameters.heightVariant == Util.HeightSupport.FREE || parameters.height <= 0) {
+            return totalArea(parameters);
+        }
+        return getWidth(parameters) * parameters.height;
+    }
+
+    /**
+     * The continuous bound, the area of the rectangles divided by the height.
+     */
+    public static long continuous(Parameters parameters) {
+        return ceil(totalArea(parameters), parameters.height);
+    }
+
+    /**
+     * The width of the widest rectangle, on its shortest side if it can be rotated and still fits.
+     */
+    public static long longestItem(Parameters parameters) {
+        long bound = 0;
+        for (Rectangle rectangle : parameters.rectangles) {
+            bound = Math.max(bound, smallest(parameters, rectangle, (width, height) -> width));
+        }
+        return bound;
+    }
+
+    /**
+     * No two rectangles higher than half the height fit above each other, and a rectangle of exactly half the height
+     * only fits above another one of half the height. So the rectangles higher than half the height are next to each
+     * other, and the ones of exactly half the height in pairs.
+     */
+    public static long tallItems(Parameters parameters) {
+        long height = parameters.height;
+        long sum = 0;
+        for (Rectangle rectangle : parameters.rectangles) {
+            sum += smallest(parameters, rectangle, (w, h) -> 2 * h > height ? 2 * w : 2 * h == height ? w : 0);
+        }
+        return ceil(sum, 2);
+    }
+
+    /**
+     * The bound L1 of Martello, Monaci and Vigo, the best bound of all {@code alpha <= H / 2}.
+     * <p>
+     *     The rectangles higher than {@code H - alpha} are next to each other and nothing lower than {@code alpha}
+     *     fits above them. The rectangles higher than half the height are next to each other as well, and the
+     *     rectangles of at least {@code alpha} have to fit in the area next to or above them. That is the area bound
+     *     where the rectangles lower than {@code alpha} are left out and the ones higher than {@code H - alpha}
+     *     count as the full height.
+     * </p>
+     * <p>
+     *     Without rotations every height of at most {@code H / 2} is tried as {@code alpha}, with prefix sums over the
+     *     rectangles sorted on height. With rotations the contribution of a rectangle depends on {@code alpha}, so only
+     *     {@link #ALPHA_SAMPLES} of those heights are tried.
+     * </p>
+     */
+    public static long martelloMonaciVigo(Parameters parameters) {
+        long bound = tallItems(parameters);
+        long height = parameters.height;
+        if (parameters.rotationVariant) {
+            TreeSet<Integer> candidates = new TreeSet<>();
+            for (Rectangle rectangle : parameters.rectangles) {
+                if (2L * rectangle.width <= height) candidates.add(rectangle.width);
+                if (2L * rectangle.height <= height) candidates.add(rectangle.height);
+            }
+            Integer[] alphas = candidates.toArray(new Integer[0]);
+            int samples = Math.min(alphas.length, ALPHA_SAMPLES);
+            for (int s = 0; s < samples; s++) {
+                long alpha = alphas[(int) ((long) s * alphas.length / samples)];
+                long sum = 0;
+                for (Rectangle rectangle : parameters.rectangles) {
+                    sum += smallest(parameters, rectangle,
+                            (w, h) -> h > height - alpha ? w * height : h >= alpha ? w * h : 0);
+                }
+                bound = Math.max(bound, ceil(sum, height));
+            }
+            return bound;
+        }
+
+        // Sort on height, with prefix sums of the width and the area
+        int size = parameters.rectangles.size();
+        long[][] items = new long[size][];
+        for (int i = 0; i < size; i++) {
+            Rectangle rectangle = parameters.rectangles.get(i);
+            items[i] = new long[]{rectangle.height, rectangle.width};
+        }
+        Arrays.sort(items, (o1, o2) -> Long.compare(o1[0], o2[0]));
+        long[] heights = new long[size];
+        long[] widthSum = new long[size + 1];
+        long[] areaSum = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            heights[i] = items[i][0];
+            widthSum[i + 1] = widthSum[i] + items[i][1];
+            areaSum[i + 1] = areaSum[i] + items[i][0] * items[i][1];
+        }
+
+        for (int i = 0; i < size && 2 * heights[i] <= height; i++) {
+            // Only the first rectangle of every height
+            if (i > 0 && heights[i] == heights[i - 1]) continue;
+            long alpha = heights[i];
+            // Rectangles [i, tall) have a height in [alpha, H - alpha], the rest is higher
+            int tall = firstAbove(heights, height - alpha);
+            long sum = areaSum[tall] - areaSum[i] + (widthSum[size] - widthSum[tall]) * height;
+            bound = Math.max(bound, ceil(sum, height));
+        }
+        return bound;
+    }
+
+    /**
+     * The best bound of the dual feasible functions {@code u(k)} of Fekete and Schepers, for {@code k <= MAX_K}.
+     * <p>
+     *     {@code u(k)} maps a relative height {@code x} to {@code x} itself if {@code (k + 1) x} is an integer, and to
+     *     {@code floor((k + 1) x) / k} otherwise. This rounds the heights up to multiples of {@code 1 / k}, so the
+     *     bound is stronger than the continuous bound when many rectangles are a bit higher than such a multiple.
+     * </p>
+     */
+    public static long dualFeasible(Parameters parameters) {
+        long height = parameters.height;
+        long bound = 0;
+        for (int k = 1; k <= MAX_K; k++) {
+            long scale = k;
+            long sum = 0;
+            for (Rectangle rectangle : parameters.rectangles) {
+                // u(k) times k * H, so the contributions are integers
+                sum += smallest(parameters, rectangle, (w, h) -> (scale + 1) * h % height == 0
+                        ? w * scale * h : w * height * ((scale + 1) * h / height));
+            }
+            bound = Math.max(bound, ceil(sum, scale * height));
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the smallest contribution of the orientations of the rectangle that fit in the height.
+     */
+    private static long smallest(Parameters parameters, Rectangle rectangle, Contribution contribution) {
+        boolean upright = rectangle.height <= parameters.height;
+        boolean rotated = parameters.rotationVariant && rectangle.width <= parameters.height;
+        if (upright && rotated) {
+            return Math.min(contribution.of(rectangle.width, rectangle.height),
+                    contribution.of(rectangle.height, rectangle.width));
+        }
+        if (rotated) return contribution.of(rectangle.height, rectangle.width);
+        return contribution.of(rectangle.width, rectangle.height);
+    }
+
+    /**
+     * Returns the index of the first height in the sorted {@code heights} that is larger than {@code limit}.
+     */
+    private static int firstAbove(long[] heights, long limit) {
+        int low = 0;
+        int high = heights.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (heights[middle] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long totalArea(Parameters parameters) {
+        long area = 0;
+        for (Rectangle rectangle : parameters.rectangles) {
+            area += (long) rectangle.width * rectangle.height;
+        }
+        return area;
+    }
+
+    private static long ceil(long dividend, long divisor) {
+        if (divisor <= 0) return 0;
+        return (dividend + divisor - 1) / divisor;
+    }
+}
@@ -0,0 +1,230 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.*;
+
+/**
+ * Long running packer that solves inputs sent to a local socket, so a caller does not start a JVM per input.
+ * <p>
+ *     Usage: {@code java PackingService [port] [workers] [queue] [deadline] [cache directory]}. The service only
+ *     listens on the loopback address. A client connects, writes an input in the format of the README and reads the
+ *     same output as the {@link PackingSolver} would give until the connection is closed. The last line of the input
+ *     has to end with a line separator or the client has to shut down its output. If the service could not solve the
+ *     input the response is a single line starting with {@code error:}, or {@code busy} when too many requests are
+ *     waiting. Inputs that were solved before are answered from a {@link SolutionCache}, which is also stored in the
+ *     cache directory if one is given. An input whose cached solve was cut short with much less time than the request
+ *     has is solved again.
+ * </p>
+ * <p>
+ *     Requests are handled by a fixed number of workers with a bounded queue in front of them, requests that do not
+ *     fit in the queue are answered with {@code busy} right away. The solvers themselves, and the islands of the
+ *     {@link GeneticSolver}, run on the shared {@link SolverPool}, which has a worker per core. By default there are
+ *     only as many workers as there are requests whose solvers all fit on that pool at the same time, more workers
+ *     would only queue the solvers of a request on the pool while its deadline expires. Every request has a deadline
+ *     that starts when it is accepted, the time spent in the queue is taken from the time limit of the solver and a
+ *     request that is still queued at its deadline is answered with an error.
+ * </p>
+ */
+public class PackingService {
+
+    /**
+     * Default deadline of a request in milliseconds.
+     */
+    static final long DEFAULT_DEADLINE = 25000;
+
+    /**
+     * Time in milliseconds reserved for reading the input and writing the output.
+     */
+    static final long DEADLINE_MARGIN = 500;
+
+    /**
+     * Part of the time of a request without waiting, that a cached solution has to be solved with to be returned.
+     * <p>
+     *     Solutions of solves that were cut short with less time, because the request waited in the queue, are solved
+     *     again. The margin keeps requests that only waited a few milliseconds from solving again.
+     * </p>
+     */
+    static final double TRUNCATED_BUDGET = 0.9;
+
+    /**
+     * Total number of rectangles of the solutions the cache of {@link #main(String[])} keeps in memory.
+     */
+    static final long CACHE_RECTANGLES = 1000000;
+
+    private final ServerSocket serverSocket;
+    private final ThreadPoolExecutor executor;
+    private final long deadline;
+    private final SolutionCache cache;
+    private Thread acceptor;
+
+    /**
+     * Creates a service listening on the given port of the loopback address.
+     *
+     * @param port     the port to listen on, or 0 for any free port
+     * @param workers  the number of requests that are solved at the same time
+     * @param queue    the number of requests that may wait for a worker
+     * @param deadline the time in milliseconds a request may take from the moment it is accepted
+     * @throws IOException if the port can not be opened
+     */
+    public PackingService(int port, int workers, int queue, long deadline) throws IOException {
+        this(port, workers, queue, deadline, null);
+    }
+
+    /**
+     * Creates a service that answers inputs it has solved before from the cache.
+     *
+     * @param cache the cache of solutions, or {@code null} to solve every request
+     * @throws IOException if the port can not be opened
+     * @see #PackingService(int, int, int, long)
+     */
+    public PackingService(int port, int workers, int queue, long deadline, SolutionCache cache) throws IOException {
+        this.cache = cache;
+        this.serverSocket = new ServerSocket(port, queue, InetAddress.getLoopbackAddress());
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), runnable -> {
+            Thread thread = new Thread(runnable, "PackingService-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadline = deadline;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : getDefaultWorkers();
+        int queue = args.length > 2 ? Integer.parseInt(args[2]) : 4 * workers;
+        long deadline = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_DEADLINE;
+        SolutionCache cache = new SolutionCache(CACHE_RECTANGLES, args.length > 4 ? Paths.get(args[4]) : null);
+
+        PackingService service = new PackingService(port, workers, queue, deadline, cache);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        service.start();
+        System.err.println("Listening on " + service.getPort());
+        service.acceptor.join();
+    }
+
+    /**
+     * Returns the number of requests whose solvers fit on the {@link SolverPool} at the same time, at least one.
+     */
+    static int getDefaultWorkers() {
+        return Math.max(1, SolverPool.getParallelism() / PackingSolver.createSolver().getSolvers().size());
+    }
+
+    /**
+     * Returns the port the service is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting requests on a new thread.
+     */
+    public synchronized void start() {
+        if (acceptor != null) return;
+        acceptor = new Thread(this::accept, "PackingService-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting requests, the requests that are being solved are abandoned.
+     */
+    public synchronized void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            if (Util.debug) e.printStackTrace();
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // Closed by stop()
+                if (!serverSocket.isClosed() && Util.debug) e.printStackTrace();
+                continue;
+            }
+
+            long requestDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadline);
+            try {
+                executor.execute(() -> handle(socket, requestDeadline));
+            } catch (RejectedExecutionException e) {
+                // Backpressure, the caller should try again later
+                respond(socket, "busy");
+            }
+        }
+    }
+
+    private void handle(Socket client, long requestDeadline) {
+        try {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(requestDeadline - System.nanoTime());
+            if (remaining <= DEADLINE_MARGIN) {
+                respond(client, "error: deadline passed while waiting in the queue");
+                return;
+            }
+            client.setSoTimeout((int) remaining);
+
+            Parameters params = new UserInput(client.getInputStream()).getUserInput();
+            // Remember the order of the rectangles for the output
+            String[] inputOrder = params.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
+
+            remaining = TimeUnit.NANOSECONDS.toMillis(requestDeadline - System.nanoTime());
+            long budget = Math.max(0, remaining - DEADLINE_MARGIN);
+            // A solution of a request that waited long in the queue is solved again by a request with more time
+            long cachedBudget = Math.min(budget, (long) (TRUNCATED_BUDGET * (deadline - DEADLINE_MARGIN)));
+            Solution solution = cache == null ? null : cache.get(params, cachedBudget);
+            if (solution == null) {
+                // The solver changes the parameters, the cache needs them as they were read
+                Parameters input = cache == null ? params : params.copy();
+                CompoundSolver solver = PackingSolver.createSolver();
+                solver.setTimeLimit(budget);
+                // Every solver returns its best solution so far when the deadline expires
+                Deadline solveDeadline = Deadline.after(budget);
+                solution = solver.getSolution(params, solveDeadline);
+                if (cache != null) cache.put(input, solution, solveDeadline.isExpired() ? budget : Long.MAX_VALUE);
+            }
+
+            PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), false, "US-ASCII");
+            PackingSolver.Output.output(solution.parameters, inputOrder, out);
+            client.close();
+        } catch (SocketException e) {
+            // The client went away, there is nobody to respond to
+            if (Util.debug) e.printStackTrace();
+            close(client);
+        } catch (Exception e) {
+            if (Util.debug) e.printStackTrace();
+            respond(client, "error: " + e);
+        }
+    }
+
+    /**
+     * Writes a single line to the client and closes the connection.
+     */
+    private static void respond(Socket client, String line) {
+        try {
+            client.getOutputStream().write((line + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII));
+            client.getOutputStream().flush();
+        } catch (IOException e) {
+            if (Util.debug) e.printStackTrace();
+        }
+        close(client);
+    }
+
+    private static void close(Socket client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            if (Util.debug) e.printStackTrace();
+        }
+    }
+}
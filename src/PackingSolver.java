@@ -1,3 +1,8 @@
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
 public class PackingSolver {
     /**
      * @throws IllegalArgumentException if number of rectangles is not positive
@@ -9,8 +14,22 @@ public class PackingSolver {
         String[] inputOrder = params.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
 //        System.err.println(params.heightVariant);
 
+        CompoundSolver compoundSolver = createSolver();
+
+        Solution solution = compoundSolver.getSolution(params);
+        System.err.println(solution.getArea());
+        if (Util.debug) System.err.println(solution.solvedBy);
+        Output.output(solution.parameters, inputOrder);
+    }
+
+    /**
+     * Returns a new instance of the solver used to solve the input, also used by the {@link BatchSolver}.
+     *
+     * @return a parallel {@link CompoundSolver} with the solvers that are used for the submission
+     */
+    static CompoundSolver createSolver() {
         // Different solutions
-        CompoundSolver compoundSolver = new CompoundSolver();
+        CompoundSolver compoundSolver = new CompoundSolver().setParallel(true);
         compoundSolver.addSolver(new FirstFitSolver());
         compoundSolver.addSolver(new SkylineSolver());
         compoundSolver.addSolver(new GeneticSolver(new TopLeftSolver(false), true));
@@ -19,45 +38,69 @@ public class PackingSolver {
 //        compoundSolver.addSolver(new CompressionSolver());
 //        compoundSolver.addSolver(new ReverseFitSolver());
 //        compoundSolver.addSolver(new SimpleTopLeftSolver());
-
-        Solution solution = compoundSolver.getSolution(params);
-        System.err.println(solution.getArea());
-        if (Util.debug) System.err.println(solution.solvedBy);
-        Output.output(solution.parameters, inputOrder);
+        return compoundSolver;
     }
 
     static class Output {
+        /**
+         * Writes the solution to {@code System.out} in the output format.
+         *
+         * @see #output(Parameters, String[], PrintStream)
+         */
         public static void output (Parameters params, String[] inputOrder) {
+            output(params, inputOrder, System.out);
+        }
+
+        /**
+         * Writes the solution in the output format, with the rectangles in the order of the input.
+         * <p>
+         *     The rectangles are looked up by their id in a map and the whole output is formatted in a single buffer
+         *     that is written and flushed once.
+         * </p>
+         *
+         * @param params     the parameters of the solution
+         * @param inputOrder the ids of the rectangles in the order they were read
+         * @param out        the stream to write to
+         */
+        public static void output (Parameters params, String[] inputOrder, PrintStream out) {
+            String newLine = System.lineSeparator();
+            Map<String, Rectangle> rectangles = new HashMap<>(2 * params.rectangles.size());
+            for (Rectangle rectangle : params.rectangles) {
+                rectangles.put(rectangle.getId(), rectangle);
+            }
+            Rectangle[] ordered = new Rectangle[inputOrder.length];
+            for (int i = 0; i < inputOrder.length; i++) {
+                ordered[i] = rectangles.get(inputOrder[i]);
+                assert (ordered[i] != null);
+            }
+
+            // About 20 characters per line of a rectangle
+            StringBuilder builder = new StringBuilder(100 + 40 * ordered.length);
             if (params.heightVariant == Util.HeightSupport.FREE) {
-                System.out.println("container height: free");
+                builder.append("container height: free").append(newLine);
             } else {
-                System.out.println("container height: fixed " + params.height);
+                builder.append("container height: fixed ").append(params.height).append(newLine);
             }
-            System.out.println("rotations allowed: " + (params.rotationVariant ? "yes" : "no"));
-            System.out.println("number of rectangles: " + params.rectangles.size() );
-            for (String rectID : inputOrder) {
-                Rectangle rect = params.rectangles.stream()
-                        .filter(rectangle -> rectID.equals(rectangle.getId())).findAny().orElse(null);
-                assert (rect != null);
+            builder.append("rotations allowed: ").append(params.rotationVariant ? "yes" : "no").append(newLine);
+            builder.append("number of rectangles: ").append(params.rectangles.size()).append(newLine);
+            for (Rectangle rect : ordered) {
                 if (!rect.isRotated()) {
-                    System.out.print(rect.width + " ");
-                    System.out.println(rect.height);
+                    builder.append(rect.width).append(' ').append(rect.height).append(newLine);
                 } else {
-                    System.out.print(rect.height + " ");
-                    System.out.println(rect.width);
+                    builder.append(rect.height).append(' ').append(rect.width).append(newLine);
                 }
             }
-            System.out.println("placement of rectangles");
-            for (String rectID : inputOrder) {
-                Rectangle rect = params.rectangles.stream()
-                        .filter(rectangle -> rectID.equals(rectangle.getId())).findAny().orElse(null);
-                assert (rect != null);
+            builder.append("placement of rectangles").append(newLine);
+            for (Rectangle rect : ordered) {
                 if (params.rotationVariant) {
-                    System.out.print(rect.isRotated() ? "yes " : "no ");
+                    builder.append(rect.isRotated() ? "yes " : "no ");
                 }
-                System.out.print(rect.x + " ");
-                System.out.println(rect.y);
+                builder.append(rect.x).append(' ').append(rect.y).append(newLine);
             }
+
+            byte[] bytes = builder.toString().getBytes(StandardCharsets.US_ASCII);
+            out.write(bytes, 0, bytes.length);
+            out.flush();
         }
     }
 }
@@ -1,4 +1,6 @@
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * Data Type to store all the parameters of the problem.
@@ -30,7 +32,12 @@ public class Parameters {
         this.minimumArea = minimumArea;
     }
 
+    /**
+     * Returns the total area of the rectangles, calculated on the first call if the rectangles were not given to
+     * {@link #setRectangles(ArrayList)}.
+     */
     public Long getMinimumArea() {
+        if (minimumArea == null) calculateMinimumArea();
         return minimumArea;
     }
 
@@ -76,6 +83,21 @@ public class Parameters {
         calculateMinimumArea();
     }
 
+    /**
+     * Appends rectangles to {@link #rectangles} and updates the minimum area without going over all rectangles.
+     *
+     * @param added the rectangles to append
+     */
+    public void addRectangles(List<Rectangle> added) {
+        // The area of the rectangles that are already there, before the added ones are part of them
+        long minimumArea = getMinimumArea();
+        rectangles.addAll(added);
+        for (Rectangle rectangle : added) {
+            minimumArea += (rectangle.height * rectangle.width);
+        }
+        this.minimumArea = minimumArea;
+    }
+
     /**
      * The ArrayList containing all the rectangles.
      *
@@ -98,6 +120,121 @@ public class Parameters {
         return parameters;
     }
 
+    /**
+     * Returns a copy of this parameter object that shares the given rectangles instead of copying them.
+     *
+     * @param rectangles the rectangles of the copy, which should not be changed afterwards
+     * @return a copy of parameters with {@code rectangles}
+     */
+    public Parameters copyWith(ArrayList<Rectangle> rectangles) {
+        Parameters parameters = new Parameters();
+        parameters.heightVariant = this.heightVariant;
+        parameters.freeHeightUtil = this.freeHeightUtil;
+        parameters.height = this.height;
+        parameters.rotationVariant = this.rotationVariant;
+        parameters.setRectangles(rectangles);
+        return parameters;
+    }
+
+    /**
+     * Returns a {@link Snapshot} of the current placement of the rectangles.
+     *
+     * @return a snapshot that is not affected by later changes to this parameters object or its rectangles
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this, rectangles);
+    }
+
+    /**
+     * Compact copy of a {@code Parameters} object, to keep a solution while the rectangles are changed further.
+     * <p>
+     *     The ids of the rectangles are shared and never change, the placement is stored in primitive arrays indexed
+     *     by the position of the rectangle in the list. A snapshot is never changed after it is created, so it can be
+     *     read by multiple threads. Only {@link #materialize()} creates new {@link Rectangle} objects, so this should
+     *     be done once when the solution is returned.
+     * </p>
+     */
+    public static final class Snapshot {
+        private final Util.HeightSupport heightVariant;
+        private final boolean freeHeightUtil;
+        private final Integer containerHeight;
+        private final boolean rotationVariant;
+        private final String[] ids;
+
+        private final int[] x;
+        private final int[] y;
+        private final int[] width;
+        private final int[] height;
+        private final BitSet rotated;
+        private final BitSet placed;
+
+        /**
+         * Creates a snapshot of the header of {@code parameters} and the given rectangles.
+         *
+         * @param parameters the parameters to take the height and rotation variant from
+         * @param rectangles the rectangles, in the order they are indexed by
+         */
+        public Snapshot(Parameters parameters, List<Rectangle> rectangles) {
+            this.heightVariant = parameters.heightVariant;
+            this.freeHeightUtil = parameters.freeHeightUtil;
+            this.containerHeight = parameters.height;
+            this.rotationVariant = parameters.rotationVariant;
+
+            int size = rectangles.size();
+            ids = new String[size];
+            x = new int[size];
+            y = new int[size];
+            width = new int[size];
+            height = new int[size];
+            rotated = new BitSet(size);
+            placed = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                ids[i] = rectangles.get(i).getId();
+                set(i, rectangles.get(i));
+            }
+        }
+
+        private void set(int i, Rectangle rectangle) {
+            x[i] = rectangle.x;
+            y[i] = rectangle.y;
+            width[i] = rectangle.width;
+            height[i] = rectangle.height;
+            rotated.set(i, rectangle.isRotated());
+            placed.set(i, rectangle.isPlaced());
+        }
+
+        /**
+         * Returns the width of the stored placement, the same as {@link Solution#getWidth()}.
+         */
+        public long getWidth() {
+            long maxWidth = 0;
+            for (int i = 0; i < ids.length; i++) {
+                maxWidth = Math.max(maxWidth, x[i] + width[i]);
+            }
+            return maxWidth;
+        }
+
+        /**
+         * Creates a new {@code Parameters} object with new {@link Rectangle}s in the stored placement.
+         *
+         * @return a new parameters object with the same ids, positions and rotations as when the snapshot was taken
+         */
+        public Parameters materialize() {
+            Parameters parameters = new Parameters();
+            parameters.heightVariant = heightVariant;
+            parameters.freeHeightUtil = freeHeightUtil;
+            parameters.height = containerHeight;
+            parameters.rotationVariant = rotationVariant;
+
+            ArrayList<Rectangle> rectangles = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                rectangles.add(new Rectangle(ids[i], x[i], y[i], width[i], height[i], rotated.get(i), placed.get(i)));
+            }
+            parameters.setRectangles(rectangles);
+            return parameters;
+        }
+    }
+
     /**
      * Prints this {@code Solution} object as a string, containing debug information.
      *
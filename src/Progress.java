@@ -0,0 +1,70 @@
+/**
+ * Publishes the improving solutions of a single solve to an {@link ImprovementListener}.
+ * <p>
+ *     Every solver of the solve reports to the same progress, see {@link AbstractSolver#report(Solution)}, so a
+ *     solution is only published when it is better than every solution any of them published before. The progress
+ *     also keeps the {@link IncumbentBoard} of the solve, which gets every reported solution.
+ * </p>
+ */
+class Progress {
+
+    private final ImprovementListener listener;
+    private final IncumbentBoard board = new IncumbentBoard();
+    private final long startTime = System.nanoTime();
+    private long bestArea = Long.MAX_VALUE;
+
+    /**
+     * @param listener the listener to publish to, or {@code null} to publish nothing
+     */
+    Progress(ImprovementListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a progress that does not publish anything, so reporting only updates the board when nobody listens.
+     */
+    static Progress none() {
+        return new Progress(null);
+    }
+
+    /**
+     * Publishes a copy of the solution if it is better than the solutions published before.
+     *
+     * @param solution the solution, which the solver may keep changing afterwards
+     * @param solver   the solver that reports the solution
+     */
+    void offer(Solution solution, AbstractSolver solver) {
+        if (solution == null) return;
+        board.offer(solution);
+        if (listener == null) return;
+        long area = solution.getArea();
+        // Overflow, see CompoundSolver
+        if (area <= 0) return;
+
+        synchronized (this) {
+            if (area >= bestArea) return;
+
+            Solution copy = solution.copy();
+            if (copy.parameters.freeHeightUtil) {
+                // Found for a single height by the FreeHeightUtil, publish it as a solution of the free height variant
+                copy.parameters.freeHeightUtil = false;
+                copy.parameters.heightVariant = Util.HeightSupport.FREE;
+            }
+            String name = solution.solvedBy != null ? solution.solvedBy.getName() : solver.getClass().getSimpleName();
+            ImprovementListener.Improvement improvement = new ImprovementListener.Improvement(copy, name,
+                    (System.nanoTime() - startTime) / 1000000);
+            bestArea = Math.min(area, improvement.area);
+
+            try {
+                listener.improved(improvement);
+            } catch (RuntimeException e) {
+                // A broken listener should not break the solve
+                if (Util.debug) e.printStackTrace();
+            }
+        }
+    }
+
+    IncumbentBoard getBoard() {
+        return board;
+    }
+}
@@ -55,6 +55,16 @@ public class Rectangle extends java.awt.Rectangle {
         this.id = UUID.randomUUID().toString();
     }
 
+    /**
+     * Construction method for restoring a rectangle with a known id, used by {@link Parameters.Snapshot}.
+     */
+    Rectangle(String id, int x, int y, int width, int height, boolean rotated, boolean placed) {
+        super(x, y, width, height);
+        this.id = id;
+        this.rotated = rotated;
+        this.placed = placed;
+    }
+
     /**
      * Get rotated property.
      */
@@ -0,0 +1,164 @@
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Struct-of-arrays representation of a list of {@link Rectangle}s for the hot loops of a solver.
+ * <p>
+ * The rectangle at index {@code i} of the list is stored at index {@code i} of the arrays, so the index is the
+ * identity of a rectangle and rectangles before {@code i} are the ones placed before it. This avoids comparing
+ * the {@link Rectangle#getId()} strings and following pointers to every rectangle. The store is filled from a list
+ * when a solver starts and written back to a list when it is done.
+ * </p>
+ */
+class RectangleStore {
+
+    final int size;
+    final int[] x;
+    final int[] y;
+    final int[] width;
+    final int[] height;
+    final BitSet rotated;
+    final BitSet placed;
+
+    /**
+     * Copies the position, size, rotation and placement of the rectangles.
+     *
+     * @param rectangles the rectangles in the order they are to be identified by
+     */
+    RectangleStore(List<Rectangle> rectangles) {
+        size = rectangles.size();
+        x = new int[size];
+        y = new int[size];
+        width = new int[size];
+        height = new int[size];
+        rotated = new BitSet(size);
+        placed = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            Rectangle rectangle = rectangles.get(i);
+            x[i] = rectangle.x;
+            y[i] = rectangle.y;
+            width[i] = rectangle.width;
+            height[i] = rectangle.height;
+            rotated.set(i, rectangle.isRotated());
+            placed.set(i, rectangle.isPlaced());
+        }
+    }
+
+    /**
+     * Sets the state of this store to the state of another store of the same size.
+     */
+    void copyFrom(RectangleStore other) {
+        System.arraycopy(other.x, 0, x, 0, size);
+        System.arraycopy(other.y, 0, y, 0, size);
+        System.arraycopy(other.width, 0, width, 0, size);
+        System.arraycopy(other.height, 0, height, 0, size);
+        rotated.clear();
+        rotated.or(other.rotated);
+        placed.clear();
+        placed.or(other.placed);
+    }
+
+    /**
+     * Sets the state of the rectangles {@code 0} up to {@code length} to their state in another store.
+     */
+    void copyPrefix(RectangleStore other, int length) {
+        System.arraycopy(other.x, 0, x, 0, length);
+        System.arraycopy(other.y, 0, y, 0, length);
+        System.arraycopy(other.width, 0, width, 0, length);
+        System.arraycopy(other.height, 0, height, 0, length);
+        for (int i = 0; i < length; i++) {
+            rotated.set(i, other.rotated.get(i));
+            placed.set(i, other.placed.get(i));
+        }
+    }
+
+    /**
+     * Writes the position, rotation and placement back to the rectangles this store was made from.
+     *
+     * @param rectangles a list with the same rectangles in the same order, or copies of them
+     */
+    void writeTo(List<Rectangle> rectangles) {
+        for (int i = 0; i < size; i++) {
+            Rectangle rectangle = rectangles.get(i);
+            rectangle.rotate(rotated.get(i));
+            rectangle.setLocation(x[i], y[i]);
+            rectangle.place(placed.get(i));
+        }
+    }
+
+    /**
+     * Rotates rectangle {@code i}, same as {@link Rectangle#rotate()}.
+     */
+    void rotate(int i) {
+        int temp = width[i];
+        width[i] = height[i];
+        height[i] = temp;
+        rotated.flip(i);
+    }
+
+    /**
+     * Returns the largest {@code x + width} of the rectangles {@code 0} up to and including {@code last}.
+     */
+    int getWidth(int last) {
+        int maxWidth = 0;
+        for (int i = 0; i <= last; i++) {
+            maxWidth = Math.max(maxWidth, x[i] + width[i]);
+        }
+        return maxWidth;
+    }
+
+    /**
+     * Checks if rectangle {@code j} intersects the given rectangle, same as {@link java.awt.Rectangle#intersects}.
+     */
+    boolean intersects(int j, int rx, int ry, int rw, int rh) {
+        int tw = width[j];
+        int th = height[j];
+        if (rw <= 0 || rh <= 0 || tw <= 0 || th <= 0) {
+            return false;
+        }
+        int tx = x[j];
+        int ty = y[j];
+        rw += rx;
+        rh += ry;
+        tw += tx;
+        th += ty;
+        //      overflow || intersect
+        return ((rw < rx || rw > tx) &&
+                (rh < ry || rh > ty) &&
+                (tw < tx || tw > rx) &&
+                (th < ty || th > ry));
+    }
+
+    /**
+     * Checks if rectangle {@code i} intersects rectangle {@code j}.
+     */
+    boolean intersects(int i, int j) {
+        return intersects(j, x[i], y[i], width[i], height[i]);
+    }
+
+    /**
+     * Same as {@link Util#moveUp(Rectangle, List)} where the rectangles before {@code i} are the ones in the list.
+     */
+    void moveUp(int i) {
+        int pathHeight = y[i];
+        y[i] = 0;
+        for (int j = 0; j < i; j++) {
+            if (intersects(j, x[i], 0, width[i], pathHeight)) {
+                y[i] = Math.max(y[i], y[j] + height[j]);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link Util#moveLeft(Rectangle, List)} where the rectangles before {@code i} are the ones in the list.
+     */
+    void moveLeft(int i) {
+        int pathWidth = x[i];
+        x[i] = 0;
+        for (int j = 0; j < i; j++) {
+            if (intersects(j, 0, y[i], pathWidth, height[i])) {
+                x[i] = Math.max(x[i], x[j] + width[j]);
+            }
+        }
+    }
+}
@@ -25,7 +25,7 @@ public class ReverseFitSolver extends AbstractSolver {
      *
      * @param parameters The parameters to be used by the solver.
      * @throws IllegalArgumentException if {@code !parameters.heightVariant.equals("fixed") || parameters.height <= 0 }
-     * @return Solution object
+     * @return Solution object, or {@code null} if it reached the {@link #getCutoff(Parameters) cutoff}
      */
     Solution pack(Parameters parameters) throws IllegalArgumentException {
         Util.animate(parameters, this);
@@ -47,6 +47,9 @@ public class ReverseFitSolver extends AbstractSolver {
             }
         }
 
+        // The large rectangles alone are already too wide to improve the solve
+        if (x_0 >= getCutoff(parameters)) return null;
+
         // With low parameters.height, sometimes we are done here already
         if (remainingRectangles.isEmpty()) {
             return new Solution(parameters, this);
@@ -72,7 +75,9 @@ public class ReverseFitSolver extends AbstractSolver {
             y_0 += rectangle.height;
             firstRow.add(rectangle);
         }
-        remainingRectangles.removeAll(firstRow);
+        removeAll(remainingRectangles, firstRow);
+        // The widest remaining rectangle is always in the first row
+        if (x_0 + w_max >= getCutoff(parameters)) return null;
 
         // Either we are done because all the rectangles have been placed, or we need to start with the reverse fit
         if (remainingRectangles.isEmpty()) {
@@ -99,8 +104,8 @@ public class ReverseFitSolver extends AbstractSolver {
             }
         }
 
-        remainingRectangles.removeAll(firstRow);
-        remainingRectangles.removeAll(reverseRow);
+        removeAll(remainingRectangles, firstRow);
+        removeAll(remainingRectangles, reverseRow);
 
 
         // Move all the rectangles from the right row to the left until any of them touch
@@ -162,7 +167,7 @@ public class ReverseFitSolver extends AbstractSolver {
 
         // STEP 5 #####
         // From here just modified first fit
-        firstFit(remainingRectangles, nextLevel, parameters, firstRow);
+        if (!firstFit(remainingRectangles, nextLevel, parameters, firstRow)) return null;
 
         assert (remainingRectangles.size() == 0);
         int finalWidth = findNewLevel(firstRow);
@@ -170,19 +175,45 @@ public class ReverseFitSolver extends AbstractSolver {
         return new Solution(parameters, this);
     }
 
-    void firstFit(ArrayList<Rectangle> remainingRectangles, int level, Parameters parameters, ArrayList<Rectangle> firstRow) {
+    @Override
+    AbstractSolver copy() {
+        return new ReverseFitSolver();
+    }
+
+    /**
+     * Places the remaining rectangles in levels starting at {@code level}, a new level is started to the right of the
+     * rightmost rectangle when a rectangle does not fit.
+     *
+     * @return {@code false} if a rectangle reached the {@link #getCutoff(Parameters) cutoff} before every rectangle
+     * was placed
+     */
+    boolean firstFit(ArrayList<Rectangle> remainingRectangles, int level, Parameters parameters, ArrayList<Rectangle> firstRow) {
+        long cutoff = getCutoff(parameters);
         while (!remainingRectangles.isEmpty()) {
             remainingRectangles.get(0).setLocation(level, parameters.height);
             Util.moveUp(remainingRectangles.get(0), firstRow);
             if (remainingRectangles.get(0).y + remainingRectangles.get(0).height >= parameters.height) { //   TODO: SEE IF THIS SHOULD BE > OR >=
                 // it doesnt fit unfortunately, so we simply make a new level at the right of the fathest block to the right
                 int new_level = findNewLevel(firstRow); // Just search for ride side of most right block
-                firstFit(remainingRectangles, new_level, parameters, firstRow);
+                if (new_level >= cutoff) return false;
+                return firstFit(remainingRectangles, new_level, parameters, firstRow);
             } else { // rectangle fit in this last level, so we remove it from remaining rectangles but add to firstRow to look for collisions
+                if (level + remainingRectangles.get(0).width >= cutoff) return false;
                 firstRow.add(remainingRectangles.get(0));
                 remainingRectangles.remove(0);
             }
         }
+        return true;
+    }
+
+    /**
+     * Removes the rectangles in {@code toRemove} from {@code rectangles} by identity, instead of comparing ids of
+     * every pair as {@link ArrayList#removeAll} does.
+     */
+    static void removeAll(ArrayList<Rectangle> rectangles, Collection<Rectangle> toRemove) {
+        Set<Rectangle> remove = Collections.newSetFromMap(new IdentityHashMap<>());
+        remove.addAll(toRemove);
+        rectangles.removeIf(remove::contains);
     }
 
     int findNewLevel(ArrayList<Rectangle> firstRow) {
@@ -7,6 +7,41 @@ import java.util.*;
 public class SimpleTopLeftSolver extends AbstractSolver {
     int binWidth = 0;
 
+    /**
+     * Index of the rectangles that are placed in the current attempt, which are the ones that can block a move.
+     */
+    SpatialGrid grid;
+
+    /**
+     * Number of attempts with different random rotations, the best one is returned.
+     */
+    static final int ATTEMPTS = 5;
+
+    /**
+     * The rectangles of the previous call in the order they were placed, with the orientation they were given in.
+     * <p>
+     *     When the next call starts with the same rectangles in the same orientation, the placement of that prefix is
+     *     taken from {@link #previousAttempts} and only the rest is placed. A local move of a search that changes the
+     *     end of the order then only costs the rectangles after the first change.
+     * </p>
+     */
+    private Rectangle[] previousSequence;
+    private int[] previousWidths;
+    private BitSet previousRotated;
+    private int previousHeight;
+    private boolean previousRotationVariant;
+
+    /**
+     * The last state of every attempt of the previous call.
+     */
+    private RectangleStore[] previousAttempts;
+
+    /**
+     * Number of rectangles at the start of the sequence that every attempt of the previous call placed. Attempts that
+     * reached the cutoff stopped early, attempts that were skipped because the deadline expired placed none.
+     */
+    private int[] previousPlaced;
+
     public SimpleTopLeftSolver(boolean allowInputSorting) {
         super(allowInputSorting);
     }
@@ -23,16 +58,19 @@ public class SimpleTopLeftSolver extends AbstractSolver {
     public boolean canSolveParameters(Parameters parameters) {
         boolean superResult = super.canSolveParameters(parameters);
         if (!superResult) return false;
-        if (parameters.rectangles.size() > 500 && (
-                parameters.heightVariant == Util.HeightSupport.FREE || parameters.freeHeightUtil)) return false;
-        return parameters.rectangles.size() <= 1000;
+        return parameters.rectangles.size() <= 10000;
     }
 
     /**
      * Find the pack value for the parameters without doing any other output.
      *
+     * <p>
+     *     An attempt is abandoned as soon as it is as wide as the best attempt so far, or reaches the
+     *     {@link #getCutoff(Parameters) cutoff} of the solve.
+     * </p>
+     *
      * @param parameters The parameters to be used by the solver.|
-     * @return Returns the associated {@link Solution} object
+     * @return Returns the associated {@link Solution} object, or {@code null} if every attempt reached the cutoff
      */
     @Override
     Solution pack(Parameters parameters) throws IllegalArgumentException {
@@ -43,7 +81,6 @@ public class SimpleTopLeftSolver extends AbstractSolver {
             x += rectangle.width;
             rectangle.place(true);
         }
-        Solution trivialSolution = new Solution(parameters, this);
 
         Util.animate(parameters, this);
 
@@ -52,99 +89,163 @@ public class SimpleTopLeftSolver extends AbstractSolver {
             parameters.rectangles.sort((o1, o2) -> (o2.height) - (o1.height));
         }
 
-        // Get 50 solutions based on rotating differently
-        Solution bestSolution = trivialSolution;
-        Parameters initialParameters = parameters.copy();
-
-        for (int n = 0; n < 5; n++) {
-            // Put the first rectangle in the top left corner
-            parameters.rectangles.get(0).x = 0;
-            parameters.rectangles.get(0).y = 0;
-            parameters.rectangles.get(0).place(true);
-            binWidth = parameters.rectangles.get(0).width;
+        // Get 5 solutions based on rotating differently, each starting from the same state
+        RectangleStore initialStore = new RectangleStore(parameters.rectangles);
+        RectangleStore store = new RectangleStore(parameters.rectangles);
+        RectangleStore bestStore = null;
+        int bestWidth = Integer.MAX_VALUE;
+        Random random = new Random();
+        grid = new SpatialGrid(store, parameters.height);
+        int prefix = sharedPrefix(parameters);
+        for (int n = 0; n < ATTEMPTS; n++) {
+            // The placement after the prefix was for other rectangles
+            previousPlaced[n] = Math.min(previousPlaced[n], prefix);
+        }
+        long cutoff = getCutoff(parameters);
+
+        for (int n = 0; n < ATTEMPTS; n++) {
+            store.copyFrom(initialStore);
+            grid.clear();
+            int start;
+            int resumable = previousPlaced[n];
+            if (resumable > 0) {
+                // Continue where this attempt was after the prefix in the previous call
+                store.copyPrefix(previousAttempts[n], resumable);
+                for (int i = 0; i < resumable; i++) {
+                    grid.add(i);
+                }
+                binWidth = store.getWidth(resumable - 1);
+                start = resumable;
+            } else {
+                // Put the first rectangle in the top left corner
+                store.x[0] = 0;
+                store.y[0] = 0;
+                store.placed.set(0);
+                grid.add(0);
+                binWidth = store.width[0];
+                start = 1;
+            }
 
-            for (int i = 1; i < parameters.rectangles.size(); i++) {
+            // The attempt is useless once it is as wide as the best one, it only gets wider
+            long limit = Math.min(bestWidth, cutoff);
+            int placed = start;
+            for (int i = start; i < store.size && binWidth < limit; i++) {
                 // Put the rectangle in the bottom right corner
-                Rectangle rect = parameters.rectangles.get(i);
-                rect.place(true);
+                store.placed.set(i);
                 Util.animate();
-                if (parameters.rotationVariant && (new Random()).nextBoolean() && rect.width < parameters.height) {
-                    rect.rotate();
+                if (parameters.rotationVariant && random.nextBoolean() && store.width[i] < parameters.height) {
+                    store.rotate(i);
                 }
-                rect.x = binWidth;
-                rect.y = parameters.height - rect.height;
-                move(rect, parameters.rectangles);
-                binWidth = Math.max(binWidth, rect.x + rect.width);
+                store.x[i] = binWidth;
+                store.y[i] = parameters.height - store.height[i];
+                move(store, i);
+                grid.add(i);
+                binWidth = Math.max(binWidth, store.x[i] + store.width[i]);
+                placed = i + 1;
+            }
+            if (placed == store.size && binWidth < limit) {
+                bestWidth = binWidth;
+                if (bestStore == null) bestStore = new RectangleStore(parameters.rectangles);
+                bestStore.copyFrom(store);
             }
-            Solution sol = new Solution(parameters, this);
-            bestSolution = sol.getArea() < bestSolution.getArea() ? sol : bestSolution;
-            parameters = initialParameters.copy();
+            previousAttempts[n].copyFrom(store);
+            previousPlaced[n] = placed;
+
+            // The other attempts only try different rotations
+            if (deadline.isExpired()) break;
         }
+        // Every attempt was abandoned, so no attempt could improve the solve
+        if (bestStore == null) return null;
 
+        Parameters bestParameters = parameters.copy();
+        bestStore.writeTo(bestParameters.rectangles);
+        return new Solution(bestParameters, this);
+    }
 
-        return bestSolution;
+    @Override
+    AbstractSolver copy() {
+        return new SimpleTopLeftSolver(allowInputSorting);
+    }
+
+    /**
+     * Returns the number of rectangles at the start of the parameters that are the same as in the previous call, and
+     * remembers the rectangles of this call for the next one.
+     *
+     * @return the length of the prefix that does not have to be placed again, {@code 0} if there is none
+     */
+    private int sharedPrefix(Parameters parameters) {
+        List<Rectangle> rectangles = parameters.rectangles;
+        int size = rectangles.size();
+        int prefix = 0;
+        if (previousSequence != null && previousSequence.length == size && previousHeight == parameters.height
+                && previousRotationVariant == parameters.rotationVariant) {
+            while (prefix < size && previousSequence[prefix] == rectangles.get(prefix)
+                    && previousWidths[prefix] == rectangles.get(prefix).width
+                    && previousRotated.get(prefix) == rectangles.get(prefix).isRotated()) {
+                prefix++;
+            }
+        } else {
+            previousSequence = new Rectangle[size];
+            previousWidths = new int[size];
+            previousRotated = new BitSet(size);
+            previousAttempts = new RectangleStore[ATTEMPTS];
+            previousPlaced = new int[ATTEMPTS];
+            for (int n = 0; n < ATTEMPTS; n++) {
+                previousAttempts[n] = new RectangleStore(rectangles);
+            }
+        }
+        previousHeight = parameters.height;
+        previousRotationVariant = parameters.rotationVariant;
+        for (int i = prefix; i < size; i++) {
+            previousSequence[i] = rectangles.get(i);
+            previousWidths[i] = rectangles.get(i).width;
+            previousRotated.set(i, rectangles.get(i).isRotated());
+        }
+        return prefix;
     }
 
-    protected void move(Rectangle rect, List<Rectangle> rectangles) {
-        if (!canMoveLeft(rect, rectangles) && !canMoveUp(rect, rectangles)) {
+    protected void move(RectangleStore store, int i) {
+        if (!canMoveLeft(store, i) && !canMoveUp(store, i)) {
             return;
         }
-        if (canMoveLeft(rect, rectangles)) {
-            moveLeft(rect, rectangles);
+        if (canMoveLeft(store, i)) {
+            moveLeft(store, i);
         }
-        while (canMoveUp(rect, rectangles)) {
-            moveUp(rect, rectangles);
-            if (canMoveLeft(rect, rectangles)) {
-                moveLeft(rect, rectangles);
+        while (canMoveUp(store, i)) {
+            moveUp(store, i);
+            if (canMoveLeft(store, i)) {
+                moveLeft(store, i);
             }
         }
-        rect.place(true);
+        store.placed.set(i);
     }
 
     /**
      * Instead of going step by step, this method looks at what rectangles are
      * blocking it from going all the way to the left, and move to just the right side of them.
      */
-    protected void moveLeft(Rectangle rect, List<Rectangle> rectangles) {
-        Util.moveLeft(rect, rectangles);
+    protected void moveLeft(RectangleStore store, int i) {
+        grid.moveLeft(i);
     }
 
     /**
      * Move up until there is a possibility to move left.
      */
-    protected void moveUp(Rectangle rect, List<Rectangle> rectangles) {
-        Util.moveUp(rect, rectangles);
+    protected void moveUp(RectangleStore store, int i) {
+        grid.moveUp(i);
     }
 
     /** Check if the rectangle can move to its left */
-    protected boolean canMoveLeft(Rectangle rect, List<Rectangle> rectangles) {
-        if (rect.x <= 0) return false;
-        rect.x--;
-        // Check intersection with all placed rectangles
-        for (Rectangle rectangle : rectangles) {
-            if (rect.getId().equals(rectangle.getId())) break;
-            if (rect.intersects(rectangle)) {
-                rect.x++;
-                return false;
-            }
-        }
-        rect.x++;
-        return true;
+    protected boolean canMoveLeft(RectangleStore store, int i) {
+        if (store.x[i] <= 0) return false;
+        // Check intersection with the placed rectangles around it
+        return !grid.intersectsAny(store.x[i] - 1, store.y[i], store.width[i], store.height[i]);
     }
 
     /** Check if the rectangle can move up */
-    protected boolean canMoveUp(Rectangle rect, List<Rectangle> rectangles) {
-        if (rect.y <= 0) return false;
-        rect.y--;
-        // Check intersection with all placed rectangles
-        for (Rectangle rectangle : rectangles) {
-            if (rect.getId().equals(rectangle.getId())) break;
-            if (rect.intersects(rectangle)) {
-                rect.y++;
-                return false;
-            }
-        }
-        rect.y++;
-        return true;
+    protected boolean canMoveUp(RectangleStore store, int i) {
+        if (store.y[i] <= 0) return false;
+        // Check intersection with the placed rectangles around it
+        return !grid.intersectsAny(store.x[i], store.y[i] - 1, store.width[i], store.height[i]);
     }
 }
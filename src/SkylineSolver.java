@@ -12,14 +12,33 @@ public class SkylineSolver extends AbstractSolver {
     Solution globalSolution;
     Parameters parameters;
 
+    /**
+     * Whether the skyline is kept in a {@link TreeSkyline} instead of an {@link ArrayListSkyline}.
+     */
+    private final boolean treeSkyline;
+
+    public SkylineSolver() {
+        this(true);
+    }
+
+    public SkylineSolver(boolean treeSkyline) {
+        this.treeSkyline = treeSkyline;
+    }
+
     @Override
     Set<Util.HeightSupport> getHeightSupport() {
         return new HashSet<>(Arrays.asList(Util.HeightSupport.FIXED, Util.HeightSupport.FREE));
     }
 
+    /**
+     * The most rectangles the tree skyline is used for, every check takes roughly cubic time in the amount of
+     * rectangles so above 100 rectangles the amount of checks is scaled down, see {@link #getNumChecks(Parameters)}.
+     */
+    static final int TREE_SKYLINE_LIMIT = 200;
+
     @Override
     public boolean canSolveParameters(Parameters parameters) {
-        if (parameters.rectangles.size() > 100) return false;
+        if (parameters.rectangles.size() > (treeSkyline ? TREE_SKYLINE_LIMIT : 100)) return false;
         if ((parameters.heightVariant == Util.HeightSupport.FREE || parameters.freeHeightUtil)  && parameters.rectangles.size() > 50) return false;
         return super.canSolveParameters(parameters);
     }
@@ -29,6 +48,8 @@ public class SkylineSolver extends AbstractSolver {
 
     int getNumChecks(Parameters parameters) {
         if (parameters.freeHeightUtil || parameters.heightVariant == Util.HeightSupport.FREE) return 3000;
+        int size = parameters.rectangles.size();
+        if (size > 100) return (int) (1500 * Math.pow(100d / size, 3));
         return 1500;
     }
 
@@ -36,10 +57,24 @@ public class SkylineSolver extends AbstractSolver {
     @Override
     Solution pack(Parameters parameters) {
         this.parameters = parameters;
-        int lowerBound = getLowerBound(parameters);
+        int lowerBound = (int) LowerBounds.getWidth(parameters);
+        IncumbentBoard board = getBoard();
+        if (!parameters.freeHeightUtil) {
+            // The bounds are for this height, a free height solve tries other heights as well
+            board.offerLowerBound((long) lowerBound * parameters.height);
+            lowerBound = (int) Math.max(lowerBound, (board.getLowerBound() + parameters.height - 1) / parameters.height);
+        }
 
-        globalSolution = new FirstFitSolver().getSolution(parameters);
-        if (globalSolution.getRate() == 1.0d) return globalSolution;
+        // Start from the best solution another solver found for this height, only solve FirstFit if there is none
+        Solution incumbent = board.getBestSolution(parameters.height);
+        if (incumbent != null) {
+            globalSolution = incumbent.copy();
+        } else {
+            globalSolution = new FirstFitSolver().getSolution(parameters);
+            report(globalSolution);
+        }
+        // Nothing is narrower than the lower bound
+        if (globalSolution.getWidth() <= lowerBound) return globalSolution;
 
         int upperBound = (int) globalSolution.getWidth();
 
@@ -49,10 +84,13 @@ public class SkylineSolver extends AbstractSolver {
         numChecks = getNumChecks(parameters); // amount of checks that can be done
 
         terminate:
-        while (numChecks > 0 && lowerBound != upperBound) {
+        while (numChecks > 0 && lowerBound < upperBound) {
 //            System.out.println(lowerBound + " - " + upperBound + ", " + debug++);
             int tempLowerBound = lowerBound;
             while (tempLowerBound < upperBound) {
+                // Another solver may have found a narrower solution, a wider one is of no use
+                upperBound = (int) Math.min(upperBound, board.getBestWidth(parameters.height));
+                if (tempLowerBound >= upperBound) break;
                 // Binary search
                 int width = ((tempLowerBound + upperBound) / 2);
 //                System.out.println("Solving for width=" + width + ", and " + iter + " iterations");
@@ -70,42 +108,12 @@ public class SkylineSolver extends AbstractSolver {
             }
             iter *= 2;
         }
-        globalSolution.solvedBy = this;
         return globalSolution;
     }
 
-    /**
-     * Gives the lowerbound for the binary search for a suitable width of the square area that is used in the second
-     * algorithm.
-     *
-     * @param parameters
-     * @return The lowerbound, which is dependent on rotations variant and the given rectangles
-     */
-    int getLowerBound(Parameters parameters) {
-        int totalArea = 0;
-        int LB2 = 0;
-        double LB3 = 0;
-        int LB4 = 0;
-        for (Rectangle rec : parameters.rectangles) {
-            totalArea += rec.getHeight() * rec.getWidth();
-            if (rec.getHeight() > parameters.height / 2f) {
-                LB2 += rec.getHeight();
-            }
-            if (rec.height == parameters.height / 2) {
-                LB3 += rec.width;
-            }
-            if (rec.width > LB4) {
-                LB4 = rec.width;
-            }
-        }
-        int LB1 = (int) Math.ceil(totalArea / (double) parameters.height);
-
-        if (parameters.rotationVariant) {
-            return LB1;
-        }
-        return LB1;
-//        return Math.max(LB1, LB4);
-//        return Math.max(Math.max(LB1, LB4), LB2 + (int) Math.ceil(LB3 / 2));
+    @Override
+    AbstractSolver copy() {
+        return new SkylineSolver(treeSkyline);
     }
 
     /**
@@ -325,13 +333,15 @@ public class SkylineSolver extends AbstractSolver {
      */
     boolean heuristicSolve(ArrayList<Rectangle> originalSequence, int width, int maximumSpread) {
         numChecks--;
+        // No checks are left once the deadline expired, the best solution so far is returned
+        if (deadline.isExpired()) numChecks = 0;
         //Util.animate(animation, this);
 
         // Just to be sure
         resetRecs(originalSequence);
 
         // Make a skyline for this attempt to place all the rectangles
-        ArrayListSkyline skylineDataStructure = new ArrayListSkyline(parameters.height, width, maximumSpread, parameters.rotationVariant);
+        AbstractSkyline skylineDataStructure = createSkyline(width, maximumSpread);
         ArrayList<PositionRectangleRotationPair> minimumLocalSpaceWastePlacements = new ArrayList<>();
 
         // Keep track of which rectangles still need to be placed
@@ -419,12 +429,28 @@ public class SkylineSolver extends AbstractSolver {
         Solution currentSolution = new Solution(parameters, this);
 //        System.out.println("solution found in heuristic solve with " + currentSolution.getWidth());
         if (globalSolution == null || currentSolution.getArea() < globalSolution.getArea()) {
-            globalSolution = currentSolution.copy();
+            // The clone is only read from now on and parameters.rectangles is replaced by the next solution
+            globalSolution = new Solution(parameters.copyWith(parameters.rectangles), this);
+            report(globalSolution);
         }
         return true;
     }
 
-    public void placeRectangle(PositionRectangleRotationPair toBePlaced, ArrayList<Rectangle> sequence, ArrayListSkyline skyline) {
+    /**
+     * Creates an empty skyline for one attempt of {@link #heuristicSolve(ArrayList, int, int)}.
+     *
+     * @param width         The given width to which to adhere
+     * @param maximumSpread The given maximumSpread to which to adhere
+     * @return a {@link TreeSkyline} or {@link ArrayListSkyline} depending on how this solver was constructed
+     */
+    AbstractSkyline createSkyline(int width, int maximumSpread) {
+        if (treeSkyline) {
+            return new TreeSkyline(parameters.height, width, maximumSpread, parameters.rotationVariant);
+        }
+        return new ArrayListSkyline(parameters.height, width, maximumSpread, parameters.rotationVariant);
+    }
+
+    public void placeRectangle(PositionRectangleRotationPair toBePlaced, ArrayList<Rectangle> sequence, AbstractSkyline skyline) {
         if (toBePlaced.rotated) {
             toBePlaced.rectangle.rotate();
         }
@@ -0,0 +1,433 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Cache of solutions, so an input that was solved before does not have to be solved again.
+ * <p>
+ *     Inputs are identified by their fingerprint: the height variant, the container height, the rotation variant and
+ *     the sorted multiset of the sizes of the rectangles. So the same rectangles in a different order, or with other
+ *     ids, share a solution. Rectangles with the same size are interchangeable, so the placement of the cached
+ *     solution is stored in the sorted order and mapped back onto the rectangles of the caller.
+ * </p>
+ * <p>
+ *     The cache keeps the most recently used solutions in memory, up to a total number of rectangles. If a directory
+ *     is given every solution is also written to it, so the solutions survive a restart and solutions that were
+ *     evicted from memory can be loaded again.
+ * </p>
+ * <p>
+ *     Every solution is stored with the time its solve had, if the solve was cut short by its deadline. A caller with
+ *     more time than that treats the solution as a miss and solves the input again, the solution of that solve then
+ *     replaces the cached one if it is better. So a solution of a solve that had almost no time is not returned
+ *     forever.
+ * </p>
+ */
+public class SolutionCache {
+    private static final int FILE_MAGIC = 0x44424C44; // "DBLD", the files of "DBLC" did not have the budget
+
+    /**
+     * Number of locks the files are read and written under, inputs with the same lock wait for each other.
+     */
+    private static final int FILE_LOCKS = 64;
+
+    private final long maxRectangles;
+    private final Path directory;
+
+    // Ordered from least to most recently used
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long rectangles = 0;
+
+    // Serialize the reads and writes of the file of an input, without holding the lock of the memory
+    private final Object[] fileLocks = new Object[FILE_LOCKS];
+
+    /**
+     * Creates a cache that only keeps solutions in memory.
+     *
+     * @param maxRectangles the total number of rectangles of the solutions kept in memory
+     */
+    public SolutionCache(long maxRectangles) {
+        this(maxRectangles, null);
+    }
+
+    /**
+     * Creates a cache that also stores the solutions in a directory.
+     *
+     * @param maxRectangles the total number of rectangles of the solutions kept in memory
+     * @param directory     the directory to store the solutions in, or {@code null} to only keep them in memory
+     * @throws UncheckedIOException if the directory can not be created
+     */
+    public SolutionCache(long maxRectangles, Path directory) {
+        this.maxRectangles = maxRectangles;
+        this.directory = directory;
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached solution for the input, placed on a copy of the parameters.
+     *
+     * @param parameters the input, the rectangles should not be placed yet
+     * @return a solution with the rectangles and ids of {@code parameters}, or {@code null} if there is none
+     */
+    public Solution get(Parameters parameters) {
+        return get(parameters, 0);
+    }
+
+    /**
+     * Returns the cached solution for the input, if it was solved with at least the given time.
+     *
+     * @param parameters the input, the rectangles should not be placed yet
+     * @param budget     the time in milliseconds the caller would solve the input with
+     * @return a solution with the rectangles and ids of {@code parameters}, or {@code null} if there is none or if it
+     * was solved with less time
+     * @see #put(Parameters, Solution, long)
+     */
+    public Solution get(Parameters parameters, long budget) {
+        int[] order = canonicalOrder(parameters.rectangles);
+        Key key = new Key(parameters, order);
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null && directory != null) {
+            // A put of the same input does not write the file while it is read
+            synchronized (fileLock(key)) {
+                entry = read(key);
+                if (entry != null) {
+                    entry = merge(key, entry);
+                }
+            }
+        }
+        if (entry == null || entry.budget < budget) return null;
+
+        Parameters solved = parameters.copy();
+        for (int k = 0; k < order.length; k++) {
+            Rectangle rectangle = solved.rectangles.get(order[k]);
+            rectangle.rotate(entry.rotated.get(k));
+            rectangle.setLocation(entry.x[k], entry.y[k]);
+            rectangle.place(true);
+        }
+        return new Solution(solved);
+    }
+
+    /**
+     * Stores the solution of the input, unless the cache already has a solution that is at least as good.
+     * <p>
+     *     The solution is compared to the solution in memory and stored while holding the lock of the cache. The file
+     *     of the input is read and written outside of that lock, so a {@link #get(Parameters)} from memory never waits
+     *     for a file. Puts of the same input wait for each other instead, the solution is also compared to the one in
+     *     the file before it replaces it. So of two solutions that are put at the same time the best one is kept, in
+     *     memory and in the directory.
+     * </p>
+     *
+     * @param parameters the input, with the ids of the rectangles of the solution
+     * @param solution   a valid solution of the input
+     */
+    public void put(Parameters parameters, Solution solution) {
+        put(parameters, solution, Long.MAX_VALUE);
+    }
+
+    /**
+     * Stores the solution of the input, that was found by a solve which was cut short by its deadline.
+     * <p>
+     *     A solution that is not better than the cached one still raises the time of the cached one, since a solve
+     *     with that time could not improve it.
+     * </p>
+     *
+     * @param parameters the input, with the ids of the rectangles of the solution
+     * @param solution   a valid solution of the input
+     * @param budget     the time in milliseconds of the solve, or {@link Long#MAX_VALUE} if it was not cut short
+     * @see #put(Parameters, Solution)
+     */
+    public void put(Parameters parameters, Solution solution, long budget) {
+        if (!Util.isValidSolution(solution, false)) return;
+
+        Map<String, Rectangle> placed = new HashMap<>(2 * solution.parameters.rectangles.size());
+        for (Rectangle rectangle : solution.parameters.rectangles) {
+            placed.put(rectangle.getId(), rectangle);
+        }
+
+        int[] order = canonicalOrder(parameters.rectangles);
+        Entry entry = new Entry(order.length, solution.getArea(), budget);
+        for (int k = 0; k < order.length; k++) {
+            Rectangle rectangle = placed.get(parameters.rectangles.get(order[k]).getId());
+            if (rectangle == null) return;
+            entry.x[k] = rectangle.x;
+            entry.y[k] = rectangle.y;
+            entry.rotated.set(k, rectangle.isRotated());
+        }
+
+        Key key = new Key(parameters, order);
+        if (directory == null) {
+            merge(key, entry);
+            return;
+        }
+        synchronized (this) {
+            Entry old = entries.get(key);
+            if (old != null && best(entry, old) == old) return;
+        }
+
+        synchronized (fileLock(key)) {
+            // The solution in memory may have been evicted, while the file still has a better one
+            Entry old = read(key);
+            Entry kept = merge(key, old == null ? entry : best(entry, old));
+            if (kept != old) write(key, kept);
+        }
+    }
+
+    /**
+     * Returns the total number of rectangles of the solutions in memory.
+     */
+    public synchronized long size() {
+        return rectangles;
+    }
+
+    /**
+     * Stores the best of the entry and the entry in memory, see {@link #best(Entry, Entry)}.
+     *
+     * @return the entry that is in memory afterwards
+     */
+    private synchronized Entry merge(Key key, Entry entry) {
+        Entry current = entries.get(key);
+        Entry merged = current == null ? entry : best(entry, current);
+        if (merged != current) store(key, merged);
+        return merged;
+    }
+
+    /**
+     * Returns the entry with the smallest area, with the largest budget of both.
+     *
+     * @return {@code old} if {@code entry} does not change it
+     */
+    private static Entry best(Entry entry, Entry old) {
+        if (entry.area < old.area) return entry.budget >= old.budget ? entry : entry.withBudget(old.budget);
+        if (entry.budget > old.budget) return old.withBudget(entry.budget);
+        return old;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            rectangles -= old.x.length;
+        }
+        rectangles += entry.x.length;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (rectangles > maxRectangles && iterator.hasNext()) {
+            rectangles -= iterator.next().x.length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the indexes of the rectangles sorted on their original width and then height.
+     */
+    private static int[] canonicalOrder(List<Rectangle> rectangles) {
+        int n = rectangles.size();
+        // Sort the sizes together with the index, width in the high bits and height in the low bits
+        long[] sizes = new long[n];
+        for (int i = 0; i < n; i++) {
+            sizes[i] = ((long) originalWidth(rectangles.get(i)) << 32) | originalHeight(rectangles.get(i));
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> sizes[i]));
+
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static int originalWidth(Rectangle rectangle) {
+        return rectangle.isRotated() ? rectangle.height : rectangle.width;
+    }
+
+    private static int originalHeight(Rectangle rectangle) {
+        return rectangle.isRotated() ? rectangle.width : rectangle.height;
+    }
+
+    private Object fileLock(Key key) {
+        return fileLocks[Math.floorMod(key.hash, fileLocks.length)];
+    }
+
+    private Path file(Key key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            key.writeTo(new DataOutputStream(bytes));
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest.digest(bytes.toByteArray())) {
+                name.append(String.format("%02x", b));
+            }
+            return directory.resolve(name.append(".bin").toString());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Entry read(Key key) {
+        Path path = file(key);
+        if (!Files.isRegularFile(path)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC) return null;
+            // Different inputs with the same hash are very unlikely, but the key is stored to be sure
+            if (!key.equals(Key.readFrom(in))) return null;
+            Entry entry = new Entry(key.sizes.length, in.readLong(), in.readLong());
+            for (int k = 0; k < entry.x.length; k++) {
+                entry.x[k] = in.readInt();
+                entry.y[k] = in.readInt();
+                entry.rotated.set(k, in.readBoolean());
+            }
+            return entry;
+        } catch (IOException e) {
+            if (Util.debug) e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void write(Key key, Entry entry) {
+        Path path = file(key);
+        try {
+            // Write to a temporary file first, so a reader never sees half a file
+            Path temporary = Files.createTempFile(directory, "solution", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(FILE_MAGIC);
+                key.writeTo(out);
+                out.writeLong(entry.area);
+                out.writeLong(entry.budget);
+                for (int k = 0; k < entry.x.length; k++) {
+                    out.writeInt(entry.x[k]);
+                    out.writeInt(entry.y[k]);
+                    out.writeBoolean(entry.rotated.get(k));
+                }
+            }
+            synchronized (this) {
+                // Only a better solution replaces the file
+                Entry current = entries.get(key);
+                if (current != null && current != entry && best(entry, current) == current) {
+                    Files.delete(temporary);
+                    return;
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (Util.debug) e.printStackTrace();
+        }
+    }
+
+    /**
+     * Fingerprint of an input.
+     */
+    private static final class Key {
+        final Util.HeightSupport heightVariant;
+        final int height;
+        final boolean rotationVariant;
+        // The sorted sizes, width in the high bits and height in the low bits
+        final long[] sizes;
+        final int hash;
+
+        Key(Parameters parameters, int[] order) {
+            this(parameters.heightVariant, parameters.height, parameters.rotationVariant, sizes(parameters, order));
+        }
+
+        private Key(Util.HeightSupport heightVariant, int height, boolean rotationVariant, long[] sizes) {
+            this.heightVariant = heightVariant;
+            this.height = height;
+            this.rotationVariant = rotationVariant;
+            this.sizes = sizes;
+            this.hash = Objects.hash(heightVariant, height, rotationVariant, Arrays.hashCode(sizes));
+        }
+
+        private static long[] sizes(Parameters parameters, int[] order) {
+            long[] sizes = new long[order.length];
+            for (int k = 0; k < order.length; k++) {
+                Rectangle rectangle = parameters.rectangles.get(order[k]);
+                sizes[k] = ((long) originalWidth(rectangle) << 32) | originalHeight(rectangle);
+            }
+            return sizes;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeBoolean(heightVariant == Util.HeightSupport.FREE);
+            out.writeInt(height);
+            out.writeBoolean(rotationVariant);
+            out.writeInt(sizes.length);
+            for (long size : sizes) {
+                out.writeLong(size);
+            }
+        }
+
+        static Key readFrom(DataInputStream in) throws IOException {
+            Util.HeightSupport heightVariant = in.readBoolean() ? Util.HeightSupport.FREE : Util.HeightSupport.FIXED;
+            int height = in.readInt();
+            boolean rotationVariant = in.readBoolean();
+            long[] sizes = new long[in.readInt()];
+            for (int k = 0; k < sizes.length; k++) {
+                sizes[k] = in.readLong();
+            }
+            return new Key(heightVariant, height, rotationVariant, sizes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hash == key.hash && heightVariant == key.heightVariant && height == key.height
+                    && rotationVariant == key.rotationVariant && Arrays.equals(sizes, key.sizes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Placement of the rectangles of a solution in the canonical order.
+     */
+    private static final class Entry {
+        final int[] x;
+        final int[] y;
+        final BitSet rotated;
+        final long area;
+        // Time in milliseconds of the solve, Long.MAX_VALUE if it was not cut short
+        final long budget;
+
+        Entry(int n, long area, long budget) {
+            this(new int[n], new int[n], new BitSet(n), area, budget);
+        }
+
+        private Entry(int[] x, int[] y, BitSet rotated, long area, long budget) {
+            this.x = x;
+            this.y = y;
+            this.rotated = rotated;
+            this.area = area;
+            this.budget = budget;
+        }
+
+        /**
+         * Returns the same placement with another budget, the placement is not changed once the entry is stored.
+         */
+        Entry withBudget(long budget) {
+            return new Entry(x, y, rotated, area, budget);
+        }
+    }
+}
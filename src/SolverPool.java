@@ -0,0 +1,68 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared pool of daemon workers that solvers use to run work in parallel.
+ * <p>
+ *     The parallel {@link CompoundSolver} runs its solvers on these workers, and the {@link GeneticSolver} runs its
+ *     extra islands on them. Sharing a single pool of one worker per available core keeps the number of threads
+ *     bounded when these solvers are nested, instead of every level starting a thread per core.
+ * </p>
+ * <p>
+ *     The workers are daemon threads so that solvers that are still running after the deadline do not keep the
+ *     JVM alive once the {@code PackingSolver} is done.
+ * </p>
+ */
+final class SolverPool {
+
+    private static ThreadPoolExecutor executor;
+
+    private SolverPool() {
+    }
+
+    /**
+     * Returns the shared executor, creating it if needed.
+     *
+     * @return an {@code ExecutorService} with one daemon worker per available core
+     */
+    static ExecutorService getExecutor() {
+        return getPool();
+    }
+
+    /**
+     * Returns the number of workers of the pool.
+     */
+    static int getParallelism() {
+        return getPool().getMaximumPoolSize();
+    }
+
+    /**
+     * Returns an estimate of the number of workers that have nothing to do.
+     * <p>
+     *     Work that is waiting in the queue takes a worker as well, so this is {@code 0} when the pool is busy.
+     *     Solvers use this to decide how much work they submit, work that is submitted to a busy pool only waits
+     *     while the deadline of the solve expires.
+     * </p>
+     *
+     * @return the number of idle workers, at least {@code 0}
+     */
+    static int getIdleWorkers() {
+        ThreadPoolExecutor pool = getPool();
+        return Math.max(0, pool.getMaximumPoolSize() - pool.getActiveCount() - pool.getQueue().size());
+    }
+
+    private static synchronized ThreadPoolExecutor getPool() {
+        if (executor == null) {
+            int workers = Runtime.getRuntime().availableProcessors();
+            executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "SolverPool-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
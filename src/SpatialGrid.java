@@ -0,0 +1,218 @@
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the rectangles of a {@link RectangleStore} that have been placed, to find the rectangles near a
+ * position without checking all of them.
+ * <p>
+ * The grid has a fixed number of rows over the height of the container and gains columns as rectangles are added
+ * further to the right. A rectangle is stored in every cell it covers, coordinates outside of the grid are clamped
+ * to the nearest cell so they are still found. Queries return the same rectangles as checking every added rectangle
+ * with {@link RectangleStore#intersects(int, int, int, int, int)}, only faster.
+ * </p>
+ */
+class SpatialGrid {
+
+    /**
+     * Maximum number of rows, the cells get higher than the average rectangle for tall containers.
+     */
+    private static final int MAX_ROWS = 1024;
+
+    private final RectangleStore store;
+    private final int cellSize;
+    private final int rows;
+    private int columns;
+
+    // The indexes of the rectangles in cell (column, row) are in cells[column * rows + row]
+    private int[][] cells;
+    private int[] cellCounts;
+
+    // Rectangles that are already handled in the current query have stamps[j] == stamp
+    private final int[] stamps;
+    private int stamp = 0;
+
+    /**
+     * The indexes found by the last {@link #collect(int, int, int, int)}.
+     */
+    int[] candidates;
+
+    /**
+     * Creates an empty grid for the rectangles of the store.
+     *
+     * @param store the store holding the positions of the rectangles
+     * @param height the height of the container
+     */
+    SpatialGrid(RectangleStore store, int height) {
+        this.store = store;
+
+        long sides = 0;
+        for (int i = 0; i < store.size; i++) {
+            sides += store.width[i] + store.height[i];
+        }
+        int averageSide = store.size == 0 ? 1 : (int) (sides / (2L * store.size));
+        cellSize = Math.max(Math.max(1, averageSide), height / MAX_ROWS + 1);
+        rows = Math.max(1, height / cellSize + 1);
+        columns = 16;
+        cells = new int[columns * rows][];
+        cellCounts = new int[columns * rows];
+        stamps = new int[store.size];
+        candidates = new int[16];
+    }
+
+    /**
+     * Removes all rectangles from the grid.
+     */
+    void clear() {
+        Arrays.fill(cellCounts, 0);
+    }
+
+    /**
+     * Adds rectangle {@code i} at its current position, it should not be moved afterwards.
+     */
+    void add(int i) {
+        if (store.width[i] <= 0 || store.height[i] <= 0) return;
+        int lastColumn = column(store.x[i] + (long) store.width[i] - 1);
+        if (lastColumn >= columns) {
+            grow(lastColumn + 1);
+        }
+        int firstRow = row(store.y[i]);
+        int lastRow = row(store.y[i] + (long) store.height[i] - 1);
+        for (int c = column(store.x[i]); c <= lastColumn; c++) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                int cell = c * rows + r;
+                if (cells[cell] == null) {
+                    cells[cell] = new int[4];
+                } else if (cellCounts[cell] == cells[cell].length) {
+                    cells[cell] = Arrays.copyOf(cells[cell], 2 * cellCounts[cell]);
+                }
+                cells[cell][cellCounts[cell]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Checks if any added rectangle intersects the given rectangle.
+     */
+    boolean intersectsAny(int rx, int ry, int rw, int rh) {
+        if (rw <= 0 || rh <= 0) return false;
+        int lastColumn = Math.min(column(rx + (long) rw - 1), columns - 1);
+        int firstRow = row(ry);
+        int lastRow = row(ry + (long) rh - 1);
+        for (int c = column(rx); c <= lastColumn; c++) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                int cell = c * rows + r;
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    if (store.intersects(cells[cell][k], rx, ry, rw, rh)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the indexes of the added rectangles that might intersect the given rectangle in {@link #candidates}.
+     *
+     * @return the number of candidates, each index is returned once
+     */
+    int collect(int rx, int ry, int rw, int rh) {
+        int count = 0;
+        if (rw <= 0 || rh <= 0) return count;
+        stamp++;
+        int lastColumn = Math.min(column(rx + (long) rw - 1), columns - 1);
+        int firstRow = row(ry);
+        int lastRow = row(ry + (long) rh - 1);
+        for (int c = column(rx); c <= lastColumn; c++) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                int cell = c * rows + r;
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    int j = cells[cell][k];
+                    if (stamps[j] == stamp) continue;
+                    stamps[j] = stamp;
+                    if (count == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, 2 * count);
+                    }
+                    candidates[count++] = j;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link RectangleStore#moveLeft(int)} where the added rectangles are the ones before {@code i}.
+     * <p>
+     * The columns are checked from right to left and the search stops once no rectangle further left can reach
+     * past the blocking rectangle found so far.
+     * </p>
+     */
+    void moveLeft(int i) {
+        int pathWidth = store.x[i];
+        int ry = store.y[i];
+        int rh = store.height[i];
+        store.x[i] = 0;
+        if (pathWidth <= 0 || rh <= 0) return;
+        stamp++;
+        int firstRow = row(ry);
+        int lastRow = row(ry + (long) rh - 1);
+        for (int c = Math.min(column(pathWidth - 1), columns - 1); c >= 0; c--) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                int cell = c * rows + r;
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    int j = cells[cell][k];
+                    if (stamps[j] == stamp) continue;
+                    stamps[j] = stamp;
+                    if (store.intersects(j, 0, ry, pathWidth, rh)) {
+                        store.x[i] = Math.max(store.x[i], store.x[j] + store.width[j]);
+                    }
+                }
+            }
+            if (store.x[i] >= c * cellSize) return;
+        }
+    }
+
+    /**
+     * Same as {@link RectangleStore#moveUp(int)} where the added rectangles are the ones before {@code i}.
+     * <p>
+     * The rows are checked from bottom to top and the search stops once no rectangle further up can reach past the
+     * blocking rectangle found so far.
+     * </p>
+     */
+    void moveUp(int i) {
+        int pathHeight = store.y[i];
+        int rx = store.x[i];
+        int rw = store.width[i];
+        store.y[i] = 0;
+        if (pathHeight <= 0 || rw <= 0) return;
+        stamp++;
+        int firstColumn = column(rx);
+        int lastColumn = Math.min(column(rx + (long) rw - 1), columns - 1);
+        for (int r = row(pathHeight - 1); r >= 0; r--) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = c * rows + r;
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    int j = cells[cell][k];
+                    if (stamps[j] == stamp) continue;
+                    stamps[j] = stamp;
+                    if (store.intersects(j, rx, 0, rw, pathHeight)) {
+                        store.y[i] = Math.max(store.y[i], store.y[j] + store.height[j]);
+                    }
+                }
+            }
+            if (store.y[i] >= r * cellSize) return;
+        }
+    }
+
+    private int column(long x) {
+        return (int) Math.max(0, Math.min(x / cellSize, Integer.MAX_VALUE / rows - 1));
+    }
+
+    private int row(long y) {
+        return (int) Math.max(0, Math.min(y / cellSize, rows - 1));
+    }
+
+    private void grow(int minimumColumns) {
+        int newColumns = Math.max(2 * columns, minimumColumns);
+        cells = Arrays.copyOf(cells, newColumns * rows);
+        cellCounts = Arrays.copyOf(cellCounts, newColumns * rows);
+        columns = newColumns;
+    }
+}
@@ -21,7 +21,7 @@ public class TopLeftSolver extends SimpleTopLeftSolver {
     public boolean canSolveParameters(Parameters parameters) {
         boolean superResult = super.canSolveParameters(parameters);
         if (!superResult) return false;
-        return parameters.rectangles.size() <= 500;
+        return parameters.rectangles.size() <= 10000;
     }
 
     /**
@@ -33,22 +33,32 @@ public class TopLeftSolver extends SimpleTopLeftSolver {
     @Override
     Solution pack(Parameters parameters) throws IllegalArgumentException {
         Solution sol = super.pack(parameters);
+        if (sol == null) return null;
         return new Solution(sol.parameters, this);
     }
 
+    @Override
+    AbstractSolver copy() {
+        return new TopLeftSolver(allowInputSorting);
+    }
+
     /**
      * Move up until there is a possibility to move left.
      */
     @Override
-    protected void moveUp(Rectangle rect, List<Rectangle> rectangles) {
-        if (rect.y <= 0) {
-            Util.moveUp(rect, rectangles);
+    protected void moveUp(RectangleStore store, int i) {
+        if (store.y[i] <= 0) {
+            grid.moveUp(i);
         } else {
-            rect.y = Math.max(0, rect.y - rect.height);
-            for (Rectangle rectangle : rectangles) {
-                if (rectangle.getId().equals(rect.getId())) break;
-                if (rectangle.isPlaced() && rect.intersects(rectangle)) {
-                    rect.y = Math.max(rect.y, rectangle.y + rectangle.height);
+            store.y[i] = Math.max(0, store.y[i] - store.height[i]);
+            // The rectangle only moves down from here, so every rectangle it can hit is below its current top.
+            // The result depends on the order the blockers are checked in, so keep the order of the list.
+            int count = grid.collect(store.x[i], store.y[i], store.width[i], Integer.MAX_VALUE - store.y[i]);
+            Arrays.sort(grid.candidates, 0, count);
+            for (int k = 0; k < count; k++) {
+                int j = grid.candidates[k];
+                if (store.placed.get(j) && store.intersects(i, j)) {
+                    store.y[i] = Math.max(store.y[i], store.y[j] + store.height[j]);
                 }
             }
         }
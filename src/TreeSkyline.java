@@ -0,0 +1,517 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Skyline backed by a {@code TreeMap} containing the segments keyed on the y coordinate of their start.
+ * <p>
+ * Behaves the same as {@link ArrayListSkyline}, but finding the segment of a point, splitting and merging segments
+ * take O(log n) instead of a linear scan and shifting an array. The most left point, the area under the skyline and
+ * the candidate points are maintained on every change instead of being recomputed.
+ * </p>
+ */
+public class TreeSkyline extends AbstractSkyline {
+
+    /**
+     * The segments of the skyline keyed on {@code segment.start.y}.
+     */
+    TreeMap<Integer, Segment> skyline = new TreeMap<>();
+
+    public int globalHeight;
+    public int globalWidth;
+    public int maximumSpread;
+    public boolean rotationsAllowed;
+
+    /**
+     * Multiset of the x coordinates of the segments, the first key is the most left point.
+     */
+    private final TreeMap<Integer, Integer> xCount = new TreeMap<>();
+
+    /**
+     * The candidate points ordered as in {@link ArrayListSkyline#getCandidatePoints()}.
+     * <p>
+     * A start point is keyed on {@code 2 * y + 1} and an end point on {@code 2 * y}, so that the end point of a
+     * segment comes before the start point of the next segment.
+     * </p>
+     */
+    private final TreeMap<Long, SegPoint> candidates = new TreeMap<>();
+
+    /**
+     * The area under the skyline, an {@code int} to match {@link ArrayListSkyline#getAreaOfSkyline(ArrayList)}.
+     */
+    private int area = 0;
+
+    /**
+     * The sum of the lengths of all segments, should always be {@link #globalHeight}.
+     */
+    private int totalLength = 0;
+
+    /**
+     * The segments around a trial placement in {@link #getLocalWaste(Rectangle, SegPoint, int[])}, stored as the
+     * y coordinate of the start and end and the x coordinate of each segment.
+     */
+    private final int[] windowStart = new int[8];
+    private final int[] windowEnd = new int[8];
+    private final int[] windowX = new int[8];
+    private int windowSize = 0;
+
+    public TreeSkyline(int height, int width, int maximumSpread, boolean rotationsAllowed) {
+        this.globalHeight = height;
+        this.globalWidth = width;
+        this.maximumSpread = maximumSpread;
+        this.rotationsAllowed = rotationsAllowed;
+
+        insert(new Segment(new SegPoint(true, 0, 0), new SegPoint(false, 0, height)));
+    }
+
+    @Override
+    public boolean doesNotMeetSpreadConstraint(Rectangle rectangle, SegPoint position, int mostLeftPoint) {
+        return position.x + rectangle.width - mostLeftPoint > maximumSpread;
+    }
+
+    /**
+     * Computes the local waste without changing the skyline.
+     * <p>
+     * The change in area is summed over the segments the rectangle covers and the segments around the rectangle
+     * after placing it are collected in a small window, two segments above and three below the rectangle are enough
+     * to find the neighbours that {@link ArrayListSkyline#getLocalWaste(Rectangle, SegPoint, int[])} looks at.
+     * </p>
+     */
+    @Override
+    public int getLocalWaste(Rectangle rectangle, SegPoint position, int[] smallestRecs) {
+        findSegment(position, false);
+        int rightX = position.x + rectangle.width;
+        int top = position.start ? position.y : position.y - rectangle.height;
+        int bottom = top + rectangle.height;
+
+        // Compute wasted space left
+        Segment first = skyline.floorEntry(top).getValue();
+        Segment last = skyline.lowerEntry(bottom).getValue();
+        int areaChange = 0;
+        for (Segment segment : skyline.subMap(first.start.y, true, bottom, false).values()) {
+            areaChange += (Math.min(segment.end.y, bottom) - Math.max(segment.start.y, top)) * (rightX - segment.start.x);
+        }
+        int wastedSpaceLeft = areaChange - rectangle.height * rectangle.width;
+
+        // wasted space right
+        int wastedSpaceRight = 0;
+        int spaceLeftRight = globalWidth - position.x - rectangle.width;
+        if (rectangle.width > smallestRecs[2] && smallestRecs[2] > spaceLeftRight) {
+            wastedSpaceRight = spaceLeftRight * rectangle.height;
+        } else if (rectangle.width == smallestRecs[2] && smallestRecs[3] > spaceLeftRight) {
+            wastedSpaceRight = spaceLeftRight * rectangle.height;
+        }
+
+        // The skyline around the rectangle as it would be after placing it
+        windowSize = 0;
+        Segment above = lower(first);
+        if (above != null && lower(above) != null) addToWindow(lower(above));
+        if (above != null) addToWindow(above);
+        if (first.start.y < top) addToWindow(first.start.y, top, first.start.x);
+        addToWindow(top, bottom, rightX);
+        if (last.end.y > bottom) addToWindow(bottom, last.end.y, last.start.x);
+        Segment below = higher(last);
+        for (int i = 0; i < 3 && below != null; i++, below = higher(below)) {
+            addToWindow(below);
+        }
+
+        // Get segment corresponding to right side of rectangle
+        int index = -1;
+        for (int i = 0; i < windowSize; i++) {
+            if ((windowStart[i] == position.y || windowEnd[i] == position.y) && windowX[i] == rightX) {
+                index = i;
+            }
+        }
+        if (index == -1) {
+            throw new IllegalStateException("No segment found at the right side of the rectangle");
+        }
+
+        // Wasted space above
+        int wastedSpaceAbove = 0;
+        if (index != 0) {
+            int toCheck = index - 1;
+            int length = windowEnd[toCheck] - windowStart[toCheck];
+            if (windowX[toCheck] < windowX[index] && (rectangle.height == smallestRecs[2] ?
+                    length < smallestRecs[3] : length < smallestRecs[2])) {
+                int height = (toCheck != 0 ? Math.min(windowX[toCheck - 1], windowX[index]) : windowX[index]);
+                wastedSpaceAbove += (height - windowX[toCheck]) * length;
+            }
+        }
+
+        // Wasted space below
+        int wastedSpaceBelow = 0;
+        if (index < windowSize - 1) {
+            int toCheck = index + 1;
+            int length = windowEnd[toCheck] - windowStart[toCheck];
+            if (windowX[toCheck] < windowX[index] && (rectangle.height == smallestRecs[2] ?
+                    length < smallestRecs[3] : length < smallestRecs[2])) {
+                int height = (toCheck != windowSize - 1 ? Math.min(windowX[toCheck + 1], windowX[index]) : windowX[index]);
+                wastedSpaceBelow += (height - windowX[toCheck]) * length;
+            }
+        }
+
+        return wastedSpaceLeft + wastedSpaceBelow + wastedSpaceRight + wastedSpaceAbove;
+    }
+
+    @Override
+    public int getFitnessNumber(PositionRectangleRotationPair pair) {
+        int fitnessNumber = 0;
+
+        if (pair.rotated) {
+            pair.rectangle.rotate();
+        }
+        // Touching Right side?
+        if (pair.position.x + pair.rectangle.width == globalWidth) {
+            fitnessNumber++;
+        }
+
+        Segment segmentInQuestion = findSegment(pair.position, true);
+
+        // Same as left Segment
+        if (segmentInQuestion.getLength() == pair.rectangle.height) {
+            fitnessNumber++;
+        }
+
+        // Same as above
+        Segment above = lower(segmentInQuestion);
+        if (above != null && (above.start.x - segmentInQuestion.start.x) == pair.rectangle.width) {
+            fitnessNumber++;
+        } else if (above == null && (globalWidth - segmentInQuestion.start.x) == pair.rectangle.width) {
+            fitnessNumber++;
+        }
+
+        //Same as below
+        Segment below = higher(segmentInQuestion);
+        if (below != null && (below.start.x - segmentInQuestion.start.x) == pair.rectangle.width) {
+            fitnessNumber++;
+        } else if (below == null && (globalWidth - segmentInQuestion.start.x) == pair.rectangle.width) {
+            fitnessNumber++;
+        }
+
+        if (pair.rotated) {
+            pair.rectangle.rotate();
+        }
+        return fitnessNumber;
+    }
+
+    /**
+     * Returns the candidate points, which are maintained on every change of the skyline.
+     *
+     * @returns the list of points on which new rectangles can be placed
+     */
+    @Override
+    public ArrayList<SegPoint> getCandidatePoints() {
+        return new ArrayList<>(candidates.values());
+    }
+
+    /**
+     * Returns the most left segment in the skyline, which is maintained on every change of the skyline.
+     *
+     * @returns An integer of the x position of the most left segment
+     */
+    @Override
+    public int getMostLeftPoint() {
+        return xCount.isEmpty() ? Integer.MAX_VALUE : xCount.firstKey();
+    }
+
+    @Override
+    public void adjustSkyline(Rectangle rectangle, SegPoint position) {
+        // Note that a rectangle is always placed with the origin matching a skyline point.
+        Segment segmentOnWhichIsToBePlaced = findSegment(position, false);
+
+        /* Updating the skyline, every case first removes and then inserts so no two segments share a key */
+        // Case 1: rectangle to be placed is smaller than segment on which is to be placed
+        if (segmentOnWhichIsToBePlaced.getLength() > rectangle.height) {
+            if (position.start) {// Top left corner of rectangle is placed on upper candidate position of segment
+                SegPoint endPoint = segmentOnWhichIsToBePlaced.end;
+                remove(segmentOnWhichIsToBePlaced);
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
+                        new SegPoint(false, new Point(rectangle.x + rectangle.width, position.y + rectangle.height))));
+                insert(new Segment(new SegPoint(true, new Point(endPoint.x, position.y + rectangle.height)), endPoint));
+            } else {// Bottom left corner of rectangle is placed on lower candidate position of segment
+                SegPoint beginPoint = segmentOnWhichIsToBePlaced.start;
+                remove(segmentOnWhichIsToBePlaced);
+                insert(new Segment(beginPoint, new SegPoint(false, new Point(beginPoint.x, position.y - rectangle.height))));
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)),
+                        new SegPoint(false, new Point(position.x + rectangle.width, position.y))));
+            }
+        } else if (segmentOnWhichIsToBePlaced.getLength() == rectangle.height) { // Case 2: rectangle to placed is exactly as big as the segment on which it is placed
+            remove(segmentOnWhichIsToBePlaced);
+            if (position.start) {
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)), new SegPoint(false,
+                        new Point(position.x + rectangle.width, position.y + rectangle.height))));
+            } else {
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y - rectangle.height)), new SegPoint(false,
+                        new Point(position.x + rectangle.width, position.y))));
+            }
+        } else { // Case 3 : rectangle to be placed is longer than the segment on which it is placed
+            int key = segmentOnWhichIsToBePlaced.start.y;
+            remove(segmentOnWhichIsToBePlaced);
+            if (position.start) {
+                int upToThisY = position.y + rectangle.height;
+
+                // delete segments that are completely overshadowed
+                Segment next = skyline.higherEntry(key).getValue();
+                while (next.end.y < upToThisY) {
+                    remove(next);
+                    next = skyline.higherEntry(key).getValue();
+                }
+
+                // From here we only need to cut a segment in half or delete it
+                SegPoint upToSegPoint = next.end;
+                remove(next);
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, position.y)),
+                        new SegPoint(false, new Point(position.x + rectangle.width, upToThisY))));
+                if (upToSegPoint.y > upToThisY) {
+                    insert(new Segment(new SegPoint(true, new Point(upToSegPoint.x, position.y + rectangle.height)), upToSegPoint));
+                }
+            } else {
+                int upToThisY = position.y - rectangle.height;
+
+                // delete segments that are completely overshadowed
+                Segment previous = skyline.lowerEntry(key).getValue();
+                while (previous.start.y > upToThisY) {
+                    remove(previous);
+                    previous = skyline.lowerEntry(key).getValue();
+                }
+
+                // From here we only need to cut a segment in half or delete it
+                SegPoint upToSegPoint = previous.start;
+                remove(previous);
+                if (upToSegPoint.y < upToThisY) {
+                    insert(new Segment(upToSegPoint, new SegPoint(false, new Point(upToSegPoint.x, position.y - rectangle.height))));
+                }
+                insert(new Segment(new SegPoint(true, new Point(position.x + rectangle.width, upToThisY)),
+                        new SegPoint(false, new Point(position.x + rectangle.width, position.y))));
+            }
+        }
+    }
+
+    @Override
+    public void fixSkylineAfterPlacements(ArrayList<Rectangle> rectangles, boolean rotationsAllowed) {
+        boolean changes;
+        do {
+            changes = false;
+            // Merge neighbours with the same x, the merged segment is not compared to its next neighbour again
+            Segment current = skyline.firstEntry().getValue();
+            while (current != null) {
+                Segment next = higher(current);
+                if (next == null) break;
+                if (current.end.x == next.start.x) {
+                    remove(current);
+                    remove(next);
+                    Segment merged = new Segment(current.start, next.end);
+                    insert(merged);
+                    current = higher(merged);
+                } else {
+                    current = next;
+                }
+            }
+            checkSkyline();
+            if (skyline.size() == 1) {
+                return;
+            }
+            int[] smallestRecs = getMinWidthHeightOtherRectangles(rectangles);
+            int smallestSide = (rotationsAllowed ? Math.min(smallestRecs[0], smallestRecs[2]) : smallestRecs[2]);
+
+            Segment previous = null;
+            for (Segment segment : skyline.values()) {
+                Segment next = higher(segment);
+                int toX;
+                if (previous == null) {
+                    toX = next.start.x;
+                } else if (next == null) {
+                    toX = previous.start.x;
+                } else {
+                    toX = Math.min(previous.start.x, next.start.x);
+                }
+                if (segment.getLength() < smallestSide && segment.start.x < toX) {
+                    setX(segment, toX);
+                    changes = true;
+                }
+                previous = segment;
+            }
+        } while (changes);
+    }
+
+    public void checkSkyline() {
+        if (totalLength != globalHeight) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Override
+    public PositionRectangleRotationPair anyOnlyFit(ArrayList<Rectangle> rectanglesLeft, boolean rotationsAllowed) {
+        ArrayList<Segment> segments = new ArrayList<>(skyline.values());
+        int[] onlyFits = new int[segments.size()];
+        PositionRectangleRotationPair potentialPlacement = null;
+
+        // Loop through all the segments in the skyline and check if there is a segment for which there is only one
+        // rectangle left that can be placed
+        for (int i = 0; i < segments.size(); i++) {
+            for (Rectangle rectangle : rectanglesLeft) {
+                if (rectangle.height == segments.get(i).getLength()) {
+                    potentialPlacement = new PositionRectangleRotationPair(rectangle, segments.get(i).start, false);
+                    onlyFits[i]++;
+                } else if (rotationsAllowed && rectangle.width == segments.get(i).getLength()) {
+                    potentialPlacement = new PositionRectangleRotationPair(rectangle, segments.get(i).start, true);
+                    onlyFits[i]++;
+                }
+            }
+        }
+        int index = -1;
+        // We check if there is an only fit somewhere
+        for (int i = 0; i < segments.size(); i++) {
+            if (index == -1 && onlyFits[i] == 1) {  // We found a placement that is potentially the only one that is left
+                index = i;
+            } else if (index != -1 && onlyFits[i] == 1) {  // Nevermind, there are more than one 'only fits'
+                index = -1;
+                break;
+            }
+        }
+        if (index != -1 && !(doesNotMeetSpreadConstraint(potentialPlacement.rectangle, segments.get(index).start, getMostLeftPoint())
+                || potentialPlacement.rectangle.y + potentialPlacement.rectangle.height > globalHeight
+                || potentialPlacement.rectangle.y < 0
+                || potentialPlacement.position.x + (potentialPlacement.rotated ? potentialPlacement.rectangle.height : potentialPlacement.rectangle.width) > globalWidth)) {
+            return potentialPlacement;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the area under the skyline, which is maintained on every change of the skyline.
+     *
+     * @return the sum of the length times the x coordinate of every segment
+     */
+    int getAreaOfSkyline() {
+        return area;
+    }
+
+    /**
+     * Finds the segment a point lies on, as {@link ArrayListSkyline} does the segment starting at the point wins
+     * from the segment ending at the point.
+     *
+     * @param position the point to search for
+     * @param identity if {@code true} the point has to be the same object, otherwise it has to be equal
+     * @return the segment containing the point
+     * @throws IllegalArgumentException if the point is not on the skyline
+     */
+    private Segment findSegment(SegPoint position, boolean identity) {
+        Segment segment = skyline.get(position.y);
+        if (segment != null && (identity ? segment.start == position : segment.start.equals(position))) {
+            return segment;
+        }
+        Map.Entry<Integer, Segment> lower = skyline.lowerEntry(position.y);
+        if (lower != null && (identity ? lower.getValue().end == position : lower.getValue().end.equals(position))) {
+            return lower.getValue();
+        }
+        throw new IllegalArgumentException("Point " + position + " is not on the skyline");
+    }
+
+    /**
+     * Returns the segment above the given segment or {@code null} if it is the first segment.
+     */
+    private Segment lower(Segment segment) {
+        Map.Entry<Integer, Segment> entry = skyline.lowerEntry(segment.start.y);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Returns the segment below the given segment or {@code null} if it is the last segment.
+     */
+    private Segment higher(Segment segment) {
+        Map.Entry<Integer, Segment> entry = skyline.higherEntry(segment.start.y);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Adds a segment to the skyline and updates the maintained values.
+     */
+    private void insert(Segment segment) {
+        skyline.put(segment.start.y, segment);
+        area += segment.getLength() * segment.start.x;
+        totalLength += segment.getLength();
+        xCount.merge(segment.start.x, 1, Integer::sum);
+
+        updateCandidates(lower(segment));
+        updateCandidates(segment);
+        updateCandidates(higher(segment));
+    }
+
+    /**
+     * Removes a segment from the skyline and updates the maintained values.
+     */
+    private void remove(Segment segment) {
+        skyline.remove(segment.start.y);
+        area -= segment.getLength() * segment.start.x;
+        totalLength -= segment.getLength();
+        xCount.computeIfPresent(segment.start.x, (x, count) -> count == 1 ? null : count - 1);
+        candidates.remove(startKey(segment), segment.start);
+        candidates.remove(endKey(segment), segment.end);
+
+        Segment above = lower(segment);
+        Segment below = higher(segment);
+        updateCandidates(above);
+        updateCandidates(below);
+    }
+
+    /**
+     * Moves a segment to the given x coordinate and updates the maintained values.
+     */
+    private void setX(Segment segment, int x) {
+        xCount.computeIfPresent(segment.start.x, (key, count) -> count == 1 ? null : count - 1);
+        area -= segment.getLength() * segment.start.x;
+
+        segment.start.x = x;
+        segment.end.x = x;
+
+        xCount.merge(segment.start.x, 1, Integer::sum);
+        area += segment.getLength() * segment.start.x;
+
+        updateCandidates(lower(segment));
+        updateCandidates(segment);
+        updateCandidates(higher(segment));
+    }
+
+    private void addToWindow(Segment segment) {
+        addToWindow(segment.start.y, segment.end.y, segment.start.x);
+    }
+
+    private void addToWindow(int start, int end, int x) {
+        windowStart[windowSize] = start;
+        windowEnd[windowSize] = end;
+        windowX[windowSize] = x;
+        windowSize++;
+    }
+
+    /**
+     * Recomputes if the start and end point of a segment are candidate points, using the same rules as
+     * {@link ArrayListSkyline#getCandidatePoints()}.
+     */
+    private void updateCandidates(Segment segment) {
+        if (segment == null) return;
+        Segment above = lower(segment);
+        Segment below = higher(segment);
+
+        if (above == null ? segment.start.x < globalWidth : segment.start.x < above.end.x) {
+            candidates.put(startKey(segment), segment.start);
+        } else {
+            candidates.remove(startKey(segment), segment.start);
+        }
+
+        if (below == null ? segment.end.x < globalWidth : segment.end.x < below.start.x) {
+            candidates.put(endKey(segment), segment.end);
+        } else {
+            candidates.remove(endKey(segment), segment.end);
+        }
+    }
+
+    private static long startKey(Segment segment) {
+        return 2L * segment.start.y + 1;
+    }
+
+    private static long endKey(Segment segment) {
+        return 2L * segment.end.y;
+    }
+}
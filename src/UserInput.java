@@ -1,14 +1,31 @@
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 
+/**
+ * Reads the {@link Parameters} from an input stream in the input format.
+ * <p>
+ *     The bytes are read into a buffer and the sizes of the rectangles are scanned by hand, so no objects other than
+ *     the rectangles are created per line. Only the three header lines are read as strings.
+ * </p>
+ *
+ * @see <a href="https://canvas.tue.nl/files/1978093/download?download_frd=1"> Problem description 2.1 Input Format</a>
+ */
 public class UserInput {
-    private Scanner sc;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream is;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    // The unread bytes are buffer[position] up to buffer[limit]
+    private int position = 0;
+    private int limit = 0;
 
     public UserInput(InputStream is) {
-        this.sc = new Scanner(is);
+        this.is = is;
     }
 
     public Parameters getUserInput() {
@@ -35,8 +52,6 @@ public class UserInput {
             height = Integer.parseInt(heightVariant.split(" ")[1]);
             heightVariant = heightVariant.split(" ")[0];
         }
-//        System.out.println();
-//        System.out.println("Height variant: " + heightVariant + (height != Integer.MAX_VALUE ? " with height " + height : ""));
 
         return Arrays.asList(heightVariant, height);
     }
@@ -44,7 +59,6 @@ public class UserInput {
     private boolean getRotation() {
         // Getting the rotations variant
         String rotationsVariant = readInputParameter();
-//        System.out.println("Rotations variant: " + rotationsVariant.startsWith("y"));
         return rotationsVariant.startsWith("y");
     }
 
@@ -54,20 +68,103 @@ public class UserInput {
         if (nRectangles <= 0) {
             throw new IllegalArgumentException("The number of rectangles must be positive.");
         }
-//        System.out.println("Getting " + nRectangles + " rectangles");
-        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        ArrayList<Rectangle> rectangles = new ArrayList<>(nRectangles);
         for (int i = 0; i < nRectangles; i++) {
-            int[] rec = Arrays.stream(sc.nextLine().trim().split("\\s+")).mapToInt(Integer::parseInt).toArray();
-            rectangles.add(new Rectangle(rec[0], rec[1]));
+            // Each line is the width and the height, anything after them is ignored
+            int width = readInt();
+            int height = readInt();
+            skipLine();
+            rectangles.add(new Rectangle(width, height));
         }
-
-//        for (Rectangle rec : rectangles) {
-//            System.out.println(" " + rec.getSize());
-//        }
         return rectangles;
     }
 
     private String readInputParameter() {
-        return this.sc.nextLine().trim().split(":")[1].trim();
+        return readLine().trim().split(":")[1].trim();
+    }
+
+    /**
+     * Returns the next byte of the input, or {@code -1} at the end of the input.
+     */
+    private int read() {
+        if (position == limit) {
+            try {
+                limit = is.read(buffer, 0, BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Returns the next byte of the input without reading it, or {@code -1} at the end of the input.
+     */
+    private int peek() {
+        int b = read();
+        if (b != -1) position--;
+        return b;
+    }
+
+    /**
+     * Reads the rest of the current line, without the line separator.
+     *
+     * @throws NoSuchElementException at the end of the input
+     */
+    private String readLine() {
+        StringBuilder line = new StringBuilder();
+        int b = read();
+        if (b == -1) throw new NoSuchElementException("No line found");
+        while (b != -1 && b != '\n') {
+            line.append((char) b);
+            b = read();
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') line.setLength(length - 1);
+        return line.toString();
+    }
+
+    /**
+     * Skips everything up to and including the next line separator.
+     */
+    private void skipLine() {
+        int b = read();
+        while (b != -1 && b != '\n') {
+            b = read();
+        }
+    }
+
+    /**
+     * Reads the next integer on the current line, skipping the spaces in front of it.
+     *
+     * @throws NumberFormatException if the next characters on the line are not an integer
+     * @throws NoSuchElementException at the end of the input
+     */
+    private int readInt() {
+        int b = read();
+        while (b == ' ' || b == '\t') {
+            b = read();
+        }
+        if (b == -1) throw new NoSuchElementException("No integer found");
+
+        boolean negative = b == '-';
+        if (negative || b == '+') b = read();
+        if (b < '0' || b > '9') throw new NumberFormatException("Expected an integer, found '" + (char) b + "'");
+
+        long value = b - '0';
+        // Only read the digits, the character after them is left for the next read
+        for (b = peek(); b >= '0' && b <= '9'; b = peek()) {
+            read();
+            value = 10 * value + (b - '0');
+            if (value > Integer.MAX_VALUE + 1L) throw new NumberFormatException("Integer out of range");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException("Integer out of range");
+        return (int) value;
     }
 }
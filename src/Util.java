@@ -1,5 +1,8 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Global Util class for commonly used function and constants.
@@ -93,60 +96,65 @@ public class Util {
 
     /**
      * Sweepline algorithm to check if the solution has overlap.
+     * <p>
+     *     The rectangles are swept from left to right, the active set holds the y intervals of the rectangles that
+     *     are crossed by the sweepline. Since the sweep stops at the first overlap, the active intervals are disjoint
+     *     and can be kept in a {@link TreeMap} from start to end. A new interval only has to be compared to the
+     *     active interval just below and just above its start, so the running time is O(n log n).
+     * </p>
+     * <p>
+     *     The rectangles of the solution are only read, rectangles without area can not overlap and are skipped.
+     * </p>
      *
      * @param solution the Solution to check for overlap
      * @return boolean value representing if there is overlap
      */
     public static boolean sweepline(Solution solution) {
-        // ArrayList holding all the segments we sweep over.
-        ArrayList<Segment> segments = new ArrayList<>();
-        ArrayList<Segment> active = new ArrayList<>();
-
-        // Copy parameters to prevent interference with the original result
-        Parameters parameters = solution.parameters.copy();
-
-        for (Rectangle rectangle : parameters.rectangles) {
-            segments.add(new Segment(Type.START, rectangle.y, rectangle.y + rectangle.height, rectangle.x, rectangle));
-            segments.add(new Segment(Type.END, rectangle.y, rectangle.y + rectangle.height, rectangle.x + rectangle.width, rectangle));
+        ArrayList<Rectangle> rectangles = solution.parameters.rectangles;
+
+        // Each event is (x << 32) | (type << 31) | index, so sorting the events sorts on x and then puts END first
+        long[] events = new long[2 * rectangles.size()];
+        int nEvents = 0;
+        for (int i = 0; i < rectangles.size(); i++) {
+            Rectangle rectangle = rectangles.get(i);
+            if (rectangle.width <= 0 || rectangle.height <= 0) continue;
+            events[nEvents++] = event(rectangle.x, Type.START, i);
+            events[nEvents++] = event(rectangle.x + rectangle.width, Type.END, i);
         }
 
         // We sweep from left to right
-        segments.sort((o1, o2) -> {
-            if (o1.x == o2.x) {
-                // END has higher priority then START
-                if (o1.type == Type.END) return -1;
-                if (o2.type == Type.END) return 1;
-            }
-            // Else sort on x
-            return o1.x - o2.x;
-        });
-
-        // Start sweep
-        for (Segment segment :
-                segments) {
-            // Left side of rectangle
-            if (segment.type == Type.START) {
-
-                for (Segment segment1 :
-                        active) {
-                    // If the interval is already in the tree there is overlap.
-                    if (segment1.equals(segment)) return true;
-                    if ((segment.yStart > segment1.yStart && segment.yStart < segment1.yEnd)
-                            || (segment.yEnd > segment1.yStart && segment.yEnd < segment1.yEnd)) {
-                        // Overlap
-                        return true;
-                    }
-                }
-                active.add(segment);
-            }
+        Arrays.sort(events, 0, nEvents);
+
+        // Active y intervals, from yStart to yEnd
+        TreeMap<Integer, Integer> active = new TreeMap<>();
+        for (int i = 0; i < nEvents; i++) {
+            Rectangle rectangle = rectangles.get((int) (events[i] & Integer.MAX_VALUE));
+            int yStart = rectangle.y;
+            int yEnd = rectangle.y + rectangle.height;
+
             // Right side of rectangle
-            else if (segment.type == Type.END) {
-                active.remove(segment);
+            if ((events[i] & (1L << 31)) == 0) {
+                active.remove(yStart);
+                continue;
             }
+
+            // Left side of rectangle, overlap if the interval below reaches over the start
+            Map.Entry<Integer, Integer> below = active.floorEntry(yStart);
+            if (below != null && below.getValue() > yStart) return true;
+            // or the interval above starts before the end
+            Integer above = active.higherKey(yStart);
+            if (above != null && above < yEnd) return true;
+
+            active.put(yStart, yEnd);
         }
         return false;
     }
 
+    private static long event(int x, Type type, int index) {
+        long typeBit = type == Type.START ? 1L << 31 : 0L;
+        return ((long) x << 32) | typeBit | index;
+    }
+
     // Representing a line Segment for the sweep
     static class Segment {
         // Left or right side of the rectangle
@@ -330,10 +338,11 @@ public class Util {
      * Move up until there is a possibility to move left.
      */
     public static void moveUp(Rectangle rect, List<Rectangle> rectangles) {
-        Rectangle path = new Rectangle(rect.x, 0, rect.width, rect.y);
+        // A plain java.awt.Rectangle, the path does not need an id
+        java.awt.Rectangle path = new java.awt.Rectangle(rect.x, 0, rect.width, rect.y);
         rect.y = 0;
         for (Rectangle rectangle : rectangles) {
-            if (rectangle.getId().equals(rect.getId())) break;
+            if (rectangle == rect) break;
             if (path.intersects(rectangle)) {
                 rect.y = Math.max(rect.y, rectangle.y + rectangle.height);
             }
@@ -345,10 +354,10 @@ public class Util {
      * blocking it from going all the way to the left, and move to just the right side of them.
      */
     public static void moveLeft(Rectangle rect, List<Rectangle> rectangles) {
-        Rectangle path = new Rectangle(0, rect.y, rect.x, rect.height);
+        java.awt.Rectangle path = new java.awt.Rectangle(0, rect.y, rect.x, rect.height);
         rect.x = 0;
         for (Rectangle rectangle : rectangles) {
-            if (rectangle.getId().equals(rect.getId())) break;
+            if (rectangle == rect) break;
             if (path.intersects(rectangle)) {
                 rect.x = Math.max(rect.x, rectangle.x + rectangle.width);
             }
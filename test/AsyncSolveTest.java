@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class AsyncSolveTest {
+
+    private Parameters input() {
+        return TestInstances.read(TestInstances.PINTO_100_ROTATIONS);
+    }
+
+    @Test
+    void testImprovements() throws Exception {
+        List<ImprovementListener.Improvement> improvements = new CopyOnWriteArrayList<>();
+        CompletableFuture<Solution> future = PackingSolver.createSolver()
+                .solveAsync(input(), Deadline.after(2000), improvements::add);
+        Solution solution = future.get(30, TimeUnit.SECONDS);
+
+        Assertions.assertFalse(improvements.isEmpty());
+        for (int i = 1; i < improvements.size(); i++) {
+            Assertions.assertTrue(improvements.get(i).area < improvements.get(i - 1).area);
+            Assertions.assertTrue(improvements.get(i).elapsed >= improvements.get(i - 1).elapsed);
+        }
+        for (ImprovementListener.Improvement improvement : improvements) {
+            Assertions.assertTrue(Util.isValidSolution(improvement.solution, false));
+        }
+        // The final solution is the last improvement
+        Assertions.assertEquals(improvements.get(improvements.size() - 1).area, solution.getArea());
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        CountDownLatch first = new CountDownLatch(1);
+        Deadline deadline = Deadline.none();
+        CompletableFuture<Solution> future = new GeneticSolver(new TopLeftSolver(false), true)
+                .solveAsync(input(), deadline, improvement -> first.countDown());
+
+        // Take the first solution that is good enough and stop the solver
+        Assertions.assertTrue(first.await(30, TimeUnit.SECONDS));
+        deadline.cancel();
+        Solution solution = future.get(GeneticSolver.TIME_LIMIT, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(Util.isValidSolution(solution, false));
+    }
+}
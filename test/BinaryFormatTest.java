@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+
+class BinaryFormatTest {
+
+    private Parameters instance() {
+        Parameters parameters = new Parameters();
+        parameters.heightVariant = Util.HeightSupport.FIXED;
+        parameters.height = 10;
+        parameters.rotationVariant = true;
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            rectangles.add(new Rectangle(i, 12 - i));
+        }
+        parameters.setRectangles(rectangles);
+        return parameters;
+    }
+
+    @Test
+    void testInstanceRoundTrip() throws IOException {
+        Parameters parameters = instance();
+        parameters.rectangles.get(3).rotate();
+        Path path = Files.createTempFile("instance", ".bin");
+        try {
+            BinaryOutput.writeInstance(parameters, path);
+            Parameters read = BinaryInput.readInstance(path);
+
+            Assertions.assertEquals(parameters.heightVariant, read.heightVariant);
+            Assertions.assertEquals(parameters.height, read.height);
+            Assertions.assertEquals(parameters.rotationVariant, read.rotationVariant);
+            Assertions.assertEquals(parameters.getMinimumArea(), read.getMinimumArea());
+            for (int i = 0; i < parameters.rectangles.size(); i++) {
+                // The original size is written
+                Assertions.assertEquals(i + 1, read.rectangles.get(i).width);
+                Assertions.assertEquals(11 - i, read.rectangles.get(i).height);
+                Assertions.assertFalse(read.rectangles.get(i).isRotated());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testSolutionRoundTrip() throws IOException {
+        Parameters parameters = instance();
+        String[] inputOrder = parameters.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
+        // The first rectangle is higher than the container and gets rotated
+        Solution solution = new FirstFitSolver().getSolution(parameters.copy());
+        Assertions.assertTrue(solution.parameters.rectangles.stream().anyMatch(Rectangle::isRotated));
+
+        Path instancePath = Files.createTempFile("instance", ".bin");
+        Path solutionPath = Files.createTempFile("solution", ".bin");
+        try {
+            BinaryOutput.writeInstance(parameters, instancePath);
+            BinaryOutput.writeSolution(solution.parameters, inputOrder, solutionPath);
+            Parameters read = BinaryInput.readSolution(solutionPath, BinaryInput.readInstance(instancePath));
+
+            for (int i = 0; i < inputOrder.length; i++) {
+                String id = inputOrder[i];
+                Rectangle expected = solution.parameters.rectangles.stream()
+                        .filter(rectangle -> rectangle.getId().equals(id)).findAny().orElse(null);
+                Rectangle actual = read.rectangles.get(i);
+                Assertions.assertEquals(expected.getBounds(), actual.getBounds());
+                Assertions.assertEquals(expected.isRotated(), actual.isRotated());
+            }
+            Assertions.assertTrue(Util.isValidSolution(new Solution(read), false));
+        } finally {
+            Files.delete(instancePath);
+            Files.delete(solutionPath);
+        }
+    }
+
+    @Test
+    void testWrongFile() throws IOException {
+        Path path = Files.createTempFile("instance", ".bin");
+        try {
+            BinaryOutput.writeInstance(instance(), path);
+            Assertions.assertThrows(IOException.class,
+                    () -> BinaryInput.readSolution(path, instance()));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testOtherInstance() throws IOException {
+        Parameters parameters = instance();
+        String[] inputOrder = parameters.rectangles.stream().map(Rectangle::getId).toArray(String[]::new);
+        Solution solution = new FirstFitSolver().getSolution(parameters.copy());
+
+        Path path = Files.createTempFile("solution", ".bin");
+        try {
+            BinaryOutput.writeSolution(solution.parameters, inputOrder, path);
+
+            Parameters higher = instance();
+            higher.height++;
+            Assertions.assertThrows(IOException.class, () -> BinaryInput.readSolution(path, higher));
+
+            Parameters rotations = instance();
+            rotations.rotationVariant = !rotations.rotationVariant;
+            Assertions.assertThrows(IOException.class, () -> BinaryInput.readSolution(path, rotations));
+
+            Parameters more = instance();
+            more.addRectangles(Collections.singletonList(new Rectangle(1, 1)));
+            Assertions.assertThrows(IOException.class, () -> BinaryInput.readSolution(path, more));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
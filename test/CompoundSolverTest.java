@@ -1,4 +1,6 @@
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 
 /**
  * Testing class using {@link CompoundSolver}
@@ -20,4 +22,24 @@ public class CompoundSolverTest extends AbstractPackingSolverTest {
 
         return compoundSolver;
     }
+
+    @Test
+    void testSolversNotShared() {
+        CompoundSolver compoundSolver = new CompoundSolver();
+        compoundSolver.addSolver(new FirstFitSolver());
+        compoundSolver.addSolver(new BottomUpSolver());
+        for (boolean parallel : new boolean[]{false, true}) {
+            compoundSolver.setParallel(parallel);
+            Parameters parameters = TestInstances.read(TestInstances.MOMOTOR_25);
+            Deadline deadline = Deadline.none();
+            Solution solution = compoundSolver.getSolution(parameters, deadline);
+            Assertions.assertTrue(Util.isValidSolution(solution, false));
+
+            // Every solve runs its own copies, so an overlapping solve can not change the solvers of this one
+            for (AbstractSolver solver : compoundSolver.getSolvers()) {
+                Assertions.assertNotSame(deadline, solver.getDeadline());
+                Assertions.assertEquals(Long.MAX_VALUE, solver.getBoard().getBestWidth(parameters.height));
+            }
+        }
+    }
 }
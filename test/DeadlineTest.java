@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+    @Test
+    void testNone() {
+        Deadline deadline = Deadline.none();
+        Assertions.assertFalse(deadline.isExpired());
+        Assertions.assertEquals(Long.MAX_VALUE, deadline.remaining());
+
+        deadline.cancel();
+        Assertions.assertTrue(deadline.isExpired());
+        Assertions.assertEquals(0, deadline.remaining());
+    }
+
+    @Test
+    void testAfter() throws InterruptedException {
+        Deadline deadline = Deadline.after(50);
+        Assertions.assertFalse(deadline.isExpired());
+        Assertions.assertTrue(deadline.remaining() <= 50);
+
+        Thread.sleep(60);
+        Assertions.assertTrue(deadline.isExpired());
+        Assertions.assertEquals(0, deadline.remaining());
+    }
+
+    @Test
+    void testLimit() {
+        Deadline parent = Deadline.none();
+        Deadline child = parent.limit(10000);
+        Assertions.assertTrue(child.remaining() <= 10000);
+
+        // Cancelling the child does not cancel the parent
+        Deadline other = parent.limit(10000);
+        other.cancel();
+        Assertions.assertFalse(parent.isExpired());
+        Assertions.assertFalse(child.isExpired());
+
+        parent.cancel();
+        Assertions.assertTrue(child.isExpired());
+    }
+
+    @Test
+    void testGeneticSolverStops() {
+        Parameters parameters = TestInstances.read(TestInstances.PINTO_100_ROTATIONS);
+
+        long start = System.nanoTime();
+        Solution solution = new GeneticSolver(new TopLeftSolver(false), true).getSolution(parameters, Deadline.after(200));
+        long duration = (System.nanoTime() - start) / 1000000;
+
+        // Much less than the time limit of the genetic solver, but every generation is finished
+        Assertions.assertTrue(duration < GeneticSolver.TIME_LIMIT / 2, "took " + duration + "ms");
+        Assertions.assertTrue(Util.isValidSolution(solution, false));
+    }
+}
@@ -1,4 +1,8 @@
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
 
 /**
  * Testing class using {@link GeneticSolver}
@@ -11,4 +15,37 @@ public class GeneticSolverTest extends AbstractPackingSolverTest {
         return new GeneticSolver(new TopLeftSolver(false), true);
     }
 
+    @Test
+    void testIslands() {
+        Parameters parameters = TestInstances.read(TestInstances.PINTO_100_ROTATIONS);
+        GeneticSolver solver = new GeneticSolver(new TopLeftSolver(false), true, 4);
+
+        Solution solution = solver.getSolution(parameters);
+        Assertions.assertEquals(100, solution.parameters.rectangles.size());
+        Assertions.assertTrue(Util.isValidSolution(solution, false));
+        // Nothing else runs on the pool, so there is a second island that the first one migrates to and back
+        Assertions.assertTrue(solver.getImmigrants() > 0);
+    }
+
+    @Test
+    void testPerfectPackingStopsIslands() {
+        // Two columns of 4 and 6 wide fit perfectly in a width of 10, the input order does not
+        Parameters parameters = new Parameters();
+        parameters.heightVariant = Util.HeightSupport.FIXED;
+        parameters.height = 10;
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        rectangles.add(new Rectangle(4, 6));
+        rectangles.add(new Rectangle(6, 4));
+        rectangles.add(new Rectangle(4, 4));
+        rectangles.add(new Rectangle(6, 6));
+        parameters.setRectangles(rectangles);
+        GeneticSolver solver = new GeneticSolver(new TopLeftSolver(false), true, 4);
+
+        long start = System.currentTimeMillis();
+        Solution solution = solver.getSolution(parameters);
+        long duration = System.currentTimeMillis() - start;
+        Assertions.assertEquals(1.0, solution.getRate());
+        // The island that found the perfect packing stops the others
+        Assertions.assertTrue(duration < GeneticSolver.TIME_LIMIT, "took " + duration + "ms");
+    }
 }
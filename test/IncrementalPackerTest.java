@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class IncrementalPackerTest {
+
+    private List<Rectangle> newRectangles(int n, int maxSide) {
+        Random random = new Random(n);
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            rectangles.add(new Rectangle(1 + random.nextInt(maxSide), 1 + random.nextInt(maxSide)));
+        }
+        return rectangles;
+    }
+
+    @Test
+    void testAddKeepsPlacement() {
+        Solution solution = new SkylineSolver().getSolution(TestInstances.read(TestInstances.MOMOTOR_25));
+        IncrementalPacker packer = new IncrementalPacker(solution).setRepackThreshold(Double.MAX_VALUE);
+
+        Solution added = packer.add(newRectangles(10, 20));
+        Assertions.assertEquals(35, added.parameters.rectangles.size());
+        Assertions.assertTrue(Util.isValidSolution(added, false));
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertEquals(solution.parameters.rectangles.get(i).getBounds(),
+                    added.parameters.rectangles.get(i).getBounds());
+        }
+        Assertions.assertEquals(added.getRate(), packer.getRate(), 1e-9);
+    }
+
+    @Test
+    void testRepack() {
+        Solution solution = new FirstFitSolver().getSolution(TestInstances.read(TestInstances.PINTO_100_ROTATIONS));
+        IncrementalPacker packer = new IncrementalPacker(solution).setRepackThreshold(0).setMaxRepack(30);
+
+        for (int i = 0; i < 5; i++) {
+            Solution added = packer.add(newRectangles(10 + i, 30));
+            Assertions.assertTrue(Util.isValidSolution(added, false));
+            Assertions.assertEquals(110 + 10 * i + i * (i + 1) / 2, added.parameters.rectangles.size());
+        }
+    }
+
+    @Test
+    void testFreeHeight() {
+        Solution solution = new FirstFitSolver().getSolution(TestInstances.read(TestInstances.CHRISTOFIDES_23_FREE));
+        IncrementalPacker packer = new IncrementalPacker(solution);
+
+        // Higher than the current solution
+        Solution added = packer.add(newRectangles(5, 500));
+        Assertions.assertTrue(Util.isValidSolution(added, false));
+    }
+}
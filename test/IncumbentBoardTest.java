@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IncumbentBoardTest {
+
+    // The instance of the file, in a container that is at least as high
+    private Parameters input(int height) {
+        Parameters parameters = TestInstances.read(TestInstances.MOMOTOR_25);
+        parameters.height = height;
+        return parameters;
+    }
+
+    @Test
+    void testOffer() {
+        IncumbentBoard board = new IncumbentBoard();
+        Assertions.assertEquals(Long.MAX_VALUE, board.getBestArea());
+        Assertions.assertEquals(Long.MAX_VALUE, board.getBestWidth(35));
+
+        Solution wide = new BottomUpSolver().getSolution(input(35));
+        Solution narrow = new FirstFitSolver().getSolution(input(35));
+        Solution other = new FirstFitSolver().getSolution(input(50));
+        board.offer(wide);
+        board.offer(narrow);
+        board.offer(other);
+
+        Assertions.assertEquals(Math.min(wide.getWidth(), narrow.getWidth()), board.getBestWidth(35));
+        Assertions.assertEquals(other.getWidth(), board.getBestWidth(50));
+        long best = Math.min(Math.min(wide.getArea(), narrow.getArea()), other.getArea());
+        Assertions.assertEquals(best, board.getBestArea());
+        Assertions.assertNotNull(board.getBestSolution(best == other.getArea() ? 50 : 35));
+        Assertions.assertNull(board.getBestSolution(40));
+    }
+
+    @Test
+    void testLowerBound() {
+        IncumbentBoard board = new IncumbentBoard();
+        Solution solution = new FirstFitSolver().getSolution(input(35));
+        board.offer(solution);
+
+        board.offerLowerBound(solution.getArea() - 1);
+        board.offerLowerBound(1);
+        Assertions.assertEquals(solution.getArea() - 1, board.getLowerBound());
+        Assertions.assertFalse(board.isOptimal());
+
+        board.offerLowerBound(solution.getArea());
+        Assertions.assertTrue(board.isOptimal());
+    }
+
+    @Test
+    void testSharedInCompound() {
+        CompoundSolver compoundSolver = new CompoundSolver();
+        compoundSolver.addSolver(new FirstFitSolver());
+        compoundSolver.addSolver(new SkylineSolver());
+        Parameters parameters = input(35);
+
+        Solution solution = compoundSolver.getSolution(parameters);
+        Assertions.assertTrue(Util.isValidSolution(solution, false));
+        // The skyline solver starts from the solution of the first fit solver
+        Assertions.assertTrue(solution.getArea() <= new FirstFitSolver().getSolution(input(35)).getArea());
+    }
+
+    @Test
+    void testSolvedBy() {
+        // The skyline solver does not reach the lower bound, so it searches until it runs out of checks
+        Solution skylineSolution = new SkylineSolver().getSolution(TestInstances.read(TestInstances.CHRISTOFIDES_23));
+        Solution incumbent = skylineSolution.copy();
+        incumbent.solvedBy = new FirstFitSolver();
+
+        SkylineSolver skyline = new SkylineSolver();
+        skyline.setProgress(new Progress(null));
+        skyline.getBoard().offer(incumbent);
+        // The skyline solver starts from the incumbent, it only solved the packing if it found a better one
+        Solution solution = skyline.pack(TestInstances.read(TestInstances.CHRISTOFIDES_23));
+        if (solution.getArea() < incumbent.getArea()) {
+            Assertions.assertSame(skyline, solution.solvedBy);
+        } else {
+            Assertions.assertSame(incumbent.solvedBy, solution.solvedBy);
+        }
+    }
+
+    @Test
+    void testCutoff() {
+        AbstractSolver[] solvers = {new FirstFitSolver(), new BottomUpSolver(), new ReverseFitSolver(),
+                new SimpleTopLeftSolver()};
+        for (AbstractSolver solver : solvers) {
+            Solution solution = solver.copy().getSolution(input(35));
+
+            // Every rectangle next to each other is a solution any solver improves on
+            Parameters row = input(35);
+            int x = 0;
+            for (Rectangle rectangle : row.rectangles) {
+                rectangle.setLocation(x, 0);
+                rectangle.place(true);
+                x += rectangle.width;
+            }
+            AbstractSolver cutoff = solver.copy();
+            cutoff.setProgress(new Progress(null));
+            cutoff.getBoard().offer(new Solution(row));
+            Solution improved = cutoff.pack(input(35));
+            Assertions.assertNotNull(improved, solver.getName());
+            Assertions.assertTrue(Util.isValidSolution(improved, false), solver.getName());
+
+            // The solution of the same solver cannot be improved on
+            cutoff.getBoard().offer(solution);
+            Solution aborted = cutoff.pack(input(35));
+            if (solver instanceof SimpleTopLeftSolver) {
+                // Random rotations might still find a narrower solution
+                Assertions.assertTrue(aborted == null || aborted.getWidth() < solution.getWidth(), solver.getName());
+            } else {
+                Assertions.assertNull(aborted, solver.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class LowerBoundsTest {
+
+    private Parameters input(int height, boolean rotation, int[]... sizes) {
+        Parameters parameters = new Parameters();
+        parameters.heightVariant = Util.HeightSupport.FIXED;
+        parameters.height = height;
+        parameters.rotationVariant = rotation;
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        for (int[] size : sizes) {
+            rectangles.add(new Rectangle(size[0], size[1]));
+        }
+        parameters.setRectangles(rectangles);
+        return parameters;
+    }
+
+    @Test
+    void testTallItems() {
+        // Three rectangles that do not fit above each other
+        Parameters parameters = input(10, false, new int[]{2, 6}, new int[]{3, 6}, new int[]{4, 6});
+        Assertions.assertEquals(6, LowerBounds.continuous(parameters));
+        Assertions.assertEquals(9, LowerBounds.tallItems(parameters));
+        Assertions.assertEquals(9, LowerBounds.getWidth(parameters));
+
+        // Rectangles of half the height fit above each other in pairs
+        parameters = input(10, false, new int[]{4, 5}, new int[]{4, 5}, new int[]{4, 5});
+        Assertions.assertEquals(6, LowerBounds.tallItems(parameters));
+    }
+
+    @Test
+    void testMartelloMonaciVigo() {
+        // Nothing of height 4 fits above the rectangle of height 7
+        Parameters parameters = input(10, false,
+                new int[]{10, 7}, new int[]{10, 4}, new int[]{10, 4}, new int[]{10, 4});
+        Assertions.assertEquals(19, LowerBounds.continuous(parameters));
+        Assertions.assertEquals(22, LowerBounds.martelloMonaciVigo(parameters));
+        // Only two rectangles of height 4 fit above each other
+        Assertions.assertEquals(25, LowerBounds.dualFeasible(parameters));
+    }
+
+    @Test
+    void testRotation() {
+        Parameters parameters = input(10, false, new int[]{8, 2}, new int[]{3, 6}, new int[]{3, 6});
+        Assertions.assertEquals(8, LowerBounds.longestItem(parameters));
+        Assertions.assertEquals(6, LowerBounds.tallItems(parameters));
+
+        // Rotated the first rectangle is 2 wide, and the others are not tall
+        parameters.rotationVariant = true;
+        Assertions.assertEquals(3, LowerBounds.longestItem(parameters));
+        Assertions.assertEquals(0, LowerBounds.tallItems(parameters));
+
+        // A rectangle that only fits rotated counts rotated
+        parameters = input(10, true, new int[]{4, 12});
+        Assertions.assertEquals(12, LowerBounds.longestItem(parameters));
+        Assertions.assertEquals(12, LowerBounds.getWidth(parameters));
+    }
+
+    @Test
+    void testValid() {
+        for (Parameters instance : TestInstances.readAll(TestInstances.CHRISTOFIDES)) {
+            if (instance.heightVariant != Util.HeightSupport.FIXED) continue;
+
+            long bound = LowerBounds.getWidth(instance);
+            Assertions.assertTrue(bound >= LowerBounds.continuous(instance));
+            for (AbstractSolver solver : new AbstractSolver[]{new FirstFitSolver(), new BottomUpSolver()}) {
+                Solution solution = solver.getSolution(instance.copy());
+                Assertions.assertTrue(solution.getWidth() >= bound, solver.getName());
+            }
+        }
+
+        // The rectangles fit perfectly in a width of 600
+        Assertions.assertTrue(LowerBounds.getWidth(TestInstances.read(TestInstances.PINTO_100)) <= 600);
+        Assertions.assertTrue(LowerBounds.getWidth(TestInstances.read(TestInstances.PINTO_100_ROTATIONS)) <= 600);
+    }
+
+    @Test
+    void testGapTermination() {
+        // First fit is optimal, but the rate is not 1.0
+        Parameters parameters = input(10, false, new int[]{2, 6}, new int[]{3, 6}, new int[]{4, 6});
+        CompoundSolver compoundSolver = new CompoundSolver();
+        compoundSolver.addSolver(new FirstFitSolver());
+        compoundSolver.addSolver(new FirstFitSolver() {
+            @Override
+            Solution pack(Parameters parameters) {
+                throw new AssertionError("Solved after the lower bound was reached");
+            }
+
+            @Override
+            AbstractSolver copy() {
+                return this;
+            }
+        });
+
+        Solution solution = compoundSolver.getSolution(parameters);
+        Assertions.assertEquals(9, solution.getWidth());
+        Assertions.assertTrue(solution.getRate() > 1.0);
+    }
+}
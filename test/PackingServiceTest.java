@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class PackingServiceTest {
+    private static final String INPUT = "container height: fixed 22\nrotations allowed: yes\nnumber of rectangles: 6\n"
+            + "12 8\n10 9\n8 12\n16 3\n4 16\n10 6\n";
+
+    PackingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // A single worker with room for a single waiting request
+        service = new PackingService(0, 1, 1, 5000);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), service.getPort());
+    }
+
+    private List<String> readLines(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        List<String> lines = new ArrayList<>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    @Test
+    void testRequest() throws IOException {
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(INPUT.getBytes(StandardCharsets.US_ASCII));
+            List<String> lines = readLines(socket);
+
+            Assertions.assertEquals(3 + 6 + 1 + 6, lines.size());
+            Assertions.assertEquals("container height: fixed 22", lines.get(0));
+            Assertions.assertEquals("placement of rectangles", lines.get(9));
+            Assertions.assertEquals("12 8", lines.get(3));
+        }
+    }
+
+    @Test
+    void testBusy() throws IOException {
+        // The first request takes the worker and the second the place in the queue, both wait for their input
+        try (Socket first = connect(); Socket second = connect(); Socket third = connect()) {
+            List<String> lines = readLines(third);
+            Assertions.assertEquals(1, lines.size());
+            Assertions.assertEquals("busy", lines.get(0));
+        }
+    }
+
+    @Test
+    void testInvalidInput() throws IOException {
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write("container height: fixed 22\nrotations allowed: yes\nnumber of rectangles: 0\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            List<String> lines = readLines(socket);
+            Assertions.assertEquals(1, lines.size());
+            Assertions.assertTrue(lines.get(0).startsWith("error:"));
+        }
+    }
+
+    @Test
+    void testDefaultWorkers() {
+        // The solvers of the requests that are solved at the same time do not have to wait for the pool
+        int workers = PackingService.getDefaultWorkers();
+        int solvers = PackingSolver.createSolver().getSolvers().size();
+        Assertions.assertTrue(workers >= 1);
+        Assertions.assertTrue(workers == 1 || workers * solvers <= SolverPool.getParallelism());
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class ParametersTest {
+    Parameters parameters;
+    @BeforeEach
+    void setUp() {
+        parameters = new Parameters();
+        parameters.heightVariant = Util.HeightSupport.FIXED;
+        parameters.height = 10;
+        parameters.rotationVariant = true;
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        rectangles.add(new Rectangle(2, 5));
+        rectangles.add(new Rectangle(3, 4));
+        parameters.setRectangles(rectangles);
+        parameters.rectangles.get(1).rotate();
+        parameters.rectangles.get(1).setLocation(2, 0);
+        parameters.rectangles.get(1).place(true);
+    }
+
+    @Test
+    void testSnapshotMaterialize() {
+        Parameters materialized = parameters.snapshot().materialize();
+
+        Assertions.assertEquals(materialized.height, parameters.height);
+        Assertions.assertEquals(materialized.heightVariant, parameters.heightVariant);
+        Assertions.assertEquals(materialized.getMinimumArea(), parameters.getMinimumArea());
+        for (int i = 0; i < parameters.rectangles.size(); i++) {
+            Rectangle original = parameters.rectangles.get(i);
+            Rectangle copy = materialized.rectangles.get(i);
+            Assertions.assertNotSame(original, copy);
+            Assertions.assertEquals(original, copy);
+            Assertions.assertEquals(original.getBounds(), copy.getBounds());
+            Assertions.assertEquals(original.isRotated(), copy.isRotated());
+            Assertions.assertEquals(original.isPlaced(), copy.isPlaced());
+        }
+    }
+
+    @Test
+    void testSnapshotUnaffectedByChanges() {
+        Parameters.Snapshot snapshot = parameters.snapshot();
+        parameters.rectangles.get(0).setLocation(7, 7);
+        parameters.rectangles.get(0).rotate();
+
+        Rectangle copy = snapshot.materialize().rectangles.get(0);
+        Assertions.assertEquals(copy.x, 0);
+        Assertions.assertEquals(copy.width, 2);
+        Assertions.assertFalse(copy.isRotated());
+    }
+
+    @Test
+    void testAddRectanglesWithoutMinimumArea() {
+        // The rectangles were assigned directly, so the minimum area was never calculated
+        Parameters assigned = new Parameters();
+        assigned.heightVariant = Util.HeightSupport.FIXED;
+        assigned.height = 10;
+        assigned.rectangles = new ArrayList<>(parameters.rectangles);
+
+        ArrayList<Rectangle> added = new ArrayList<>();
+        added.add(new Rectangle(4, 4));
+        assigned.addRectangles(added);
+        Assertions.assertEquals(3, assigned.rectangles.size());
+        Assertions.assertEquals(10 + 12 + 16, (long) assigned.getMinimumArea());
+    }
+}
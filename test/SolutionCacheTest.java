@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+class SolutionCacheTest {
+
+    // The same rectangles with new ids, in a different order
+    private Parameters shuffled(Parameters parameters) {
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        for (Rectangle rectangle : parameters.rectangles) {
+            rectangles.add(new Rectangle(rectangle.width, rectangle.height));
+        }
+        Collections.shuffle(rectangles, new Random(1));
+        return parameters.copyWith(rectangles);
+    }
+
+    // Every rectangle next to each other, which is worse than any solver
+    private Solution row(Parameters parameters) {
+        Parameters row = parameters.copy();
+        int x = 0;
+        for (Rectangle rectangle : row.rectangles) {
+            rectangle.setLocation(x, 0);
+            rectangle.place(true);
+            x += rectangle.width;
+        }
+        return new Solution(row);
+    }
+
+    @Test
+    void testHitInOtherOrder() {
+        SolutionCache cache = new SolutionCache(1000);
+        Parameters parameters = TestInstances.read(TestInstances.PINTO_100_ROTATIONS);
+        Solution solution = new FirstFitSolver().getSolution(parameters.copy());
+        cache.put(parameters, solution);
+
+        Parameters other = shuffled(parameters);
+        Solution cached = cache.get(other);
+        Assertions.assertNotNull(cached);
+        Assertions.assertEquals(solution.getArea(), cached.getArea());
+        Assertions.assertTrue(Util.isValidSolution(cached, false));
+        for (int i = 0; i < other.rectangles.size(); i++) {
+            Assertions.assertEquals(other.rectangles.get(i), cached.parameters.rectangles.get(i));
+        }
+
+        other.height++;
+        Assertions.assertNull(cache.get(other));
+    }
+
+    @Test
+    void testEviction() {
+        // Room for two of the three instances, of 16, 23 and 25 rectangles
+        SolutionCache cache = new SolutionCache(50);
+        Parameters first = TestInstances.read(TestInstances.CHRISTOFIDES_16);
+        Parameters second = TestInstances.read(TestInstances.CHRISTOFIDES_23);
+        Parameters third = TestInstances.read(TestInstances.MOMOTOR_25);
+        cache.put(first, new FirstFitSolver().getSolution(first.copy()));
+        cache.put(second, new FirstFitSolver().getSolution(second.copy()));
+        // Use the first, so the second is the least recently used
+        Assertions.assertNotNull(cache.get(first));
+        cache.put(third, new FirstFitSolver().getSolution(third.copy()));
+
+        Assertions.assertEquals(16 + 25, cache.size());
+        Assertions.assertNotNull(cache.get(first));
+        Assertions.assertNull(cache.get(second));
+        Assertions.assertNotNull(cache.get(third));
+    }
+
+    @Test
+    void testDisk() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        try {
+            Parameters parameters = TestInstances.read(TestInstances.PINTO_100_ROTATIONS);
+            Solution solution = new FirstFitSolver().getSolution(parameters.copy());
+            new SolutionCache(1000, directory).put(parameters, solution);
+
+            Solution cached = new SolutionCache(1000, directory).get(shuffled(parameters));
+            Assertions.assertNotNull(cached);
+            Assertions.assertEquals(solution.getArea(), cached.getArea());
+            Assertions.assertTrue(Util.isValidSolution(cached, false));
+        } finally {
+            Files.walk(directory).sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testDiskNotReplacedByWorse() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        try {
+            // Room for a single solution in memory
+            SolutionCache cache = new SolutionCache(25, directory);
+            Parameters parameters = TestInstances.read(TestInstances.MOMOTOR_25);
+            Solution solution = new FirstFitSolver().getSolution(parameters.copy());
+            cache.put(parameters, solution);
+            Parameters other = TestInstances.read(TestInstances.CHRISTOFIDES_23);
+            cache.put(other, new FirstFitSolver().getSolution(other.copy()));
+
+            // Worse than the solution that was evicted to the directory
+            Solution worse = row(parameters);
+            Assertions.assertTrue(worse.getArea() > solution.getArea());
+            cache.put(parameters, worse);
+
+            Assertions.assertEquals(solution.getArea(), cache.get(parameters).getArea());
+            Assertions.assertEquals(solution.getArea(), new SolutionCache(25, directory).get(parameters).getArea());
+        } finally {
+            Files.walk(directory).sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testConcurrentPuts() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("cache");
+        try {
+            SolutionCache cache = new SolutionCache(1000, directory);
+            Parameters parameters = TestInstances.read(TestInstances.MOMOTOR_25);
+            Solution better = new FirstFitSolver().getSolution(parameters.copy());
+            Solution worse = row(parameters);
+
+            // Half of the threads put the worse solution, whatever the order the better one is kept
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                Solution solution = i % 2 == 0 ? worse : better;
+                threads[i] = new Thread(() -> cache.put(parameters, solution));
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Assertions.assertEquals(better.getArea(), cache.get(parameters).getArea());
+            Assertions.assertEquals(better.getArea(), new SolutionCache(1000, directory).get(parameters).getArea());
+        } finally {
+            Files.walk(directory).sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testTruncatedBudget() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        try {
+            SolutionCache cache = new SolutionCache(1000, directory);
+            Parameters parameters = TestInstances.read(TestInstances.MOMOTOR_25);
+            Solution better = new FirstFitSolver().getSolution(parameters.copy());
+            Solution worse = row(parameters);
+
+            // A solve that had 600ms is only returned to callers with at most that time
+            cache.put(parameters, worse, 600);
+            Assertions.assertNotNull(cache.get(parameters, 600));
+            Assertions.assertNull(cache.get(parameters, 20000));
+            Assertions.assertNull(new SolutionCache(1000, directory).get(parameters, 20000));
+
+            // A solve with more time replaces it
+            cache.put(parameters, better, 20000);
+            Assertions.assertEquals(better.getArea(), cache.get(parameters, 20000).getArea());
+
+            // A worse solve that was not cut short keeps the better solution, which no solve could improve then
+            cache.put(parameters, worse);
+            Assertions.assertEquals(better.getArea(), cache.get(parameters, Long.MAX_VALUE).getArea());
+            Assertions.assertEquals(better.getArea(),
+                    new SolutionCache(1000, directory).get(parameters, Long.MAX_VALUE).getArea());
+        } finally {
+            Files.walk(directory).sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+class SpatialGridTest {
+
+    // Random rectangles in a container of height 100, some of them sticking out
+    private RectangleStore randomStore(Random random, int n) {
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Rectangle rectangle = new Rectangle(1 + random.nextInt(30), 1 + random.nextInt(30));
+            rectangle.setLocation(random.nextInt(300), random.nextInt(120));
+            rectangles.add(rectangle);
+        }
+        return new RectangleStore(rectangles);
+    }
+
+    @Test
+    void testSameAsStore() {
+        Random random = new Random(3);
+        for (int test = 0; test < 50; test++) {
+            RectangleStore store = randomStore(random, 60);
+            SpatialGrid grid = new SpatialGrid(store, 100);
+            for (int i = 0; i < store.size; i++) {
+                int x = store.x[i];
+                int y = store.y[i];
+
+                boolean intersects = false;
+                for (int j = 0; j < i; j++) {
+                    intersects |= store.intersects(j, x - 1, y, store.width[i], store.height[i]);
+                }
+                Assertions.assertEquals(intersects, grid.intersectsAny(x - 1, y, store.width[i], store.height[i]));
+
+                store.moveLeft(i);
+                int expectedX = store.x[i];
+                store.x[i] = x;
+                grid.moveLeft(i);
+                Assertions.assertEquals(expectedX, store.x[i]);
+
+                store.x[i] = x;
+                store.moveUp(i);
+                int expectedY = store.y[i];
+                store.y[i] = y;
+                grid.moveUp(i);
+                Assertions.assertEquals(expectedY, store.y[i]);
+
+                store.y[i] = y;
+                grid.add(i);
+            }
+        }
+    }
+
+    @Test
+    void testCollect() {
+        RectangleStore store = randomStore(new Random(5), 100);
+        SpatialGrid grid = new SpatialGrid(store, 100);
+        for (int i = 0; i < store.size; i++) {
+            grid.add(i);
+        }
+
+        int count = grid.collect(50, 20, 40, 40);
+        boolean[] found = new boolean[store.size];
+        for (int k = 0; k < count; k++) {
+            Assertions.assertFalse(found[grid.candidates[k]]);
+            found[grid.candidates[k]] = true;
+        }
+        for (int j = 0; j < store.size; j++) {
+            if (store.intersects(j, 50, 20, 40, 40)) {
+                Assertions.assertTrue(found[j]);
+            }
+        }
+    }
+}
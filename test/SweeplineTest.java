@@ -86,4 +86,49 @@ class SweeplineTest {
         Solution solution = new Solution(parameters);
         assertFalse(Util.sweepline(solution));
     }
-}
\ No newline at end of file
+
+    // One rectangle contains the y interval of the other
+    @Test
+    void sweeplineContained() {
+        Parameters parameters = new Parameters();
+
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        Rectangle rectangle1 = new Rectangle(10, 10);
+        Rectangle rectangle2 = new Rectangle(4, 2);
+
+        rectangle2.x = 3;
+        rectangle2.y = 4;
+
+        rectangles.add(rectangle1);
+        rectangles.add(rectangle2);
+
+        parameters.rectangles = rectangles;
+
+        Solution solution = new Solution(parameters);
+        assertTrue(Util.sweepline(solution));
+    }
+
+    // A column of touching rectangles next to a tall one
+    @Test
+    void sweeplineTouching() {
+        Parameters parameters = new Parameters();
+
+        ArrayList<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Rectangle rectangle = new Rectangle(5, 3);
+            rectangle.y = 3 * i;
+            rectangles.add(rectangle);
+        }
+        Rectangle tall = new Rectangle(5, 30);
+        tall.x = 5;
+        rectangles.add(tall);
+
+        parameters.rectangles = rectangles;
+
+        Solution solution = new Solution(parameters);
+        assertFalse(Util.sweepline(solution));
+
+        tall.x = 4;
+        assertTrue(Util.sweepline(solution));
+    }
+}
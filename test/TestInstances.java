@@ -0,0 +1,91 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Instances of {@code test/input} and {@code test/momotor} for the tests that need a specific kind of input.
+ * <p>
+ *     Every call reads the file again, so a test gets new rectangles that it is free to change.
+ * </p>
+ */
+final class TestInstances {
+
+    /**
+     * 100 rectangles with a fixed height of 400, that fit perfectly in a width of 600.
+     */
+    static final String PINTO_100 = "./test/input/Perfect fit/Pinto, 2005/100 (400x600, fixed, n=100).in";
+
+    /**
+     * {@link #PINTO_100} where the rectangles may be rotated.
+     */
+    static final String PINTO_100_ROTATIONS =
+            "./test/input/Perfect fit/Pinto, 2005/100 (400x600, fixed, rotations, n=100).in";
+
+    /**
+     * 25 rectangles with a fixed height of 35 and no rotations.
+     */
+    static final String MOMOTOR_25 = "./test/momotor/prototype-1/0007_r25-h35-rn.in";
+
+    /**
+     * 16 rectangles with a fixed height of 10 and no rotations, without a perfect packing.
+     */
+    static final String CHRISTOFIDES_16 =
+            "./test/input/Non-perfect fit/Christofides, 1977/cgcut1 (10x23, fixed, n=16).in";
+
+    /**
+     * 23 rectangles with a fixed height of 70 and no rotations, without a perfect packing.
+     */
+    static final String CHRISTOFIDES_23 =
+            "./test/input/Non-perfect fit/Christofides, 1977/cgcut2 (70x63, fixed, n=23).in";
+
+    /**
+     * {@link #CHRISTOFIDES_23} with a free height.
+     */
+    static final String CHRISTOFIDES_23_FREE =
+            "./test/input/Non-perfect fit/Christofides, 1977/cgcut2 (70x63, free, n=23).in";
+
+    /**
+     * Small instances with a fixed height and no perfect packing.
+     */
+    static final String CHRISTOFIDES = "./test/input/Non-perfect fit/Christofides, 1977";
+
+    private TestInstances() {
+    }
+
+    /**
+     * Reads the instance in the file.
+     *
+     * @param path the path of an {@code .in} file
+     * @return the parameters of the instance
+     */
+    static Parameters read(String path) {
+        try {
+            return new UserInput(new FileInputStream(path)).getUserInput();
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads every instance in the folder, sorted on file name.
+     *
+     * @param path the path of a folder with {@code .in} files
+     * @return the parameters of the instances
+     */
+    static List<Parameters> readAll(String path) {
+        File[] files = new File(path).listFiles();
+        assert files != null;
+        List<Parameters> instances = new ArrayList<>();
+        Arrays.stream(files)
+                .filter(File::isFile)
+                .filter(file -> file.getName().endsWith(".in"))
+                .sorted(Comparator.comparing(File::getName))
+                .forEach(file -> instances.add(read(file.getPath())));
+        return instances;
+    }
+}
@@ -1,7 +1,10 @@
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
 
 /**
  * Testing class using {@link TopLeftSolver}
@@ -14,4 +17,32 @@ public class TopLeftSolverTest extends AbstractPackingSolverTest {
         return new TopLeftSolver();
     }
 
+    @Test
+    void testPrefixReuse() {
+        // Without rotations every attempt is the same, so a new solver has to give exactly the same packing
+        Parameters parameters = TestInstances.read(TestInstances.PINTO_100);
+        Random random = new Random(20);
+
+        // The same solver decodes orders that only differ after a random position
+        TopLeftSolver solver = new TopLeftSolver(false);
+        ArrayList<Rectangle> sequence = new ArrayList<>(parameters.rectangles);
+        for (int i = 0; i < 50; i++) {
+            int first = random.nextInt(sequence.size());
+            Collections.swap(sequence, first, first + random.nextInt(sequence.size() - first));
+            if (random.nextBoolean() && sequence.get(first).width <= parameters.height) sequence.get(first).rotate();
+
+            Solution solution = solver.pack(parameters.copyWith(new ArrayList<>(sequence)));
+            Solution expected = new TopLeftSolver(false).pack(parameters.copyWith(new ArrayList<>(sequence)));
+            // The solver does not rotate, but the rectangles that were rotated above are
+            Parameters placed = solution.parameters.copy();
+            placed.rotationVariant = true;
+            Assertions.assertTrue(Util.isValidSolution(new Solution(placed), false));
+            Assertions.assertEquals(expected.getWidth(), solution.getWidth());
+            for (int j = 0; j < sequence.size(); j++) {
+                Rectangle actual = solution.parameters.rectangles.get(j);
+                Rectangle rectangle = expected.parameters.rectangles.get(j);
+                Assertions.assertEquals(rectangle.getBounds(), actual.getBounds(), "rectangle " + j);
+            }
+        }
+    }
 }
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+class TreeSkylineTest {
+    TreeSkyline skylineDataStructure;
+    @BeforeEach
+    void setUp() {skylineDataStructure = new TreeSkyline(22, 22, 16, true);
+    }
+
+    @Test
+    void testConstruction() {
+        Assertions.assertEquals(skylineDataStructure.skyline.size(), 1);
+        ArrayList<SegPoint> points = skylineDataStructure.getCandidatePoints();
+        Assertions.assertEquals(points.get(0).x, 0);
+        Assertions.assertEquals(points.get(0).y, 0);
+        Assertions.assertTrue(points.get(0).start);
+        Assertions.assertEquals(points.get(1).x, 0);
+        Assertions.assertEquals(points.get(1).y, 22);
+        Assertions.assertFalse(points.get(1).start);
+    }
+
+    @Test
+    void testOnlyFitFunctionality() {
+        Rectangle onlyFitRectangle = new Rectangle(3, 22);
+        ArrayList<Rectangle> sequence = new ArrayList<>();
+        sequence.add(onlyFitRectangle);
+        Assertions.assertNotNull(skylineDataStructure.anyOnlyFit(sequence, true));
+    }
+
+    @Test
+    void testOnlyFitFunctionality2() {
+        Rectangle notOnlyFitRectangle = new Rectangle(3, 5);
+        ArrayList<Rectangle> sequence = new ArrayList<>();
+        sequence.add(notOnlyFitRectangle);
+        Assertions.assertNull(skylineDataStructure.anyOnlyFit(sequence, true));
+    }
+
+    @Test
+    void testGetAreaOfSkyline() {
+        Rectangle notOnlyFitRectangle = new Rectangle(3, 5);
+        skylineDataStructure.adjustSkyline(notOnlyFitRectangle, skylineDataStructure.getCandidatePoints().get(0));
+
+        Assertions.assertEquals(skylineDataStructure.getAreaOfSkyline(), 15);
+        Assertions.assertEquals(skylineDataStructure.getMostLeftPoint(), 0);
+
+        Rectangle onlyFitRectangle = new Rectangle(3, 17);
+        skylineDataStructure.adjustSkyline(onlyFitRectangle, skylineDataStructure.getCandidatePoints().get(2));
+
+        Assertions.assertEquals(skylineDataStructure.getAreaOfSkyline(), 3 * 22);
+        Assertions.assertEquals(skylineDataStructure.getMostLeftPoint(), 3);
+    }
+
+    /**
+     * Places random rectangles on both skylines and checks that they agree on every query.
+     */
+    @Test
+    void testSameAsArrayListSkyline() {
+        Random random = new Random(100);
+        for (int run = 0; run < 50; run++) {
+            TreeSkyline tree = new TreeSkyline(40, 60, 60, false);
+            ArrayListSkyline list = new ArrayListSkyline(40, 60, 60, false);
+            ArrayList<Rectangle> sequence = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                sequence.add(new Rectangle(1 + random.nextInt(6), 1 + random.nextInt(12)));
+            }
+
+            while (!sequence.isEmpty()) {
+                ArrayList<SegPoint> treePoints = tree.getCandidatePoints();
+                ArrayList<SegPoint> listPoints = list.getCandidatePoints();
+                Assertions.assertEquals(listPoints, treePoints);
+                Assertions.assertEquals(list.getMostLeftPoint(), tree.getMostLeftPoint());
+                Assertions.assertEquals(list.getAreaOfSkyline(list.skyline), tree.getAreaOfSkyline());
+
+                int[] smallestRecs = list.getMinWidthHeightOtherRectangles(sequence);
+                Rectangle rectangle = sequence.get(0);
+                int chosen = -1;
+                for (int i = 0; i < treePoints.size(); i++) {
+                    SegPoint point = treePoints.get(i);
+                    int y = point.start ? point.y : point.y - rectangle.height;
+                    if (y < 0 || y + rectangle.height > 40 || point.x + rectangle.width > 60) continue;
+                    rectangle.x = point.x;
+                    Assertions.assertEquals(list.getLocalWaste(rectangle, listPoints.get(i), smallestRecs),
+                            tree.getLocalWaste(rectangle, point, smallestRecs));
+                    if (chosen == -1) chosen = i;
+                }
+                if (chosen == -1) break;
+
+                rectangle.x = treePoints.get(chosen).x;
+                tree.adjustSkyline(rectangle, treePoints.get(chosen));
+                list.adjustSkyline(rectangle, listPoints.get(chosen));
+                sequence.remove(rectangle);
+                tree.fixSkylineAfterPlacements(sequence, false);
+                list.fixSkylineAfterPlacements(sequence, false);
+            }
+        }
+    }
+}
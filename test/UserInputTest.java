@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+class UserInputTest {
+
+    private Parameters parse(String input) {
+        return new UserInput(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))).getUserInput();
+    }
+
+    @Test
+    void testFixed() {
+        Parameters parameters = parse("container height: fixed 22\nrotations allowed: yes\nnumber of rectangles: 3\n"
+                + "12 8\n10 9\n8 12\n");
+        Assertions.assertEquals(Util.HeightSupport.FIXED, parameters.heightVariant);
+        Assertions.assertEquals(22, (int) parameters.height);
+        Assertions.assertTrue(parameters.rotationVariant);
+        Assertions.assertEquals(3, parameters.rectangles.size());
+        Assertions.assertEquals(10, parameters.rectangles.get(1).width);
+        Assertions.assertEquals(9, parameters.rectangles.get(1).height);
+        Assertions.assertEquals(282, (long) parameters.getMinimumArea());
+    }
+
+    @Test
+    void testFreeWithCarriageReturns() {
+        // Windows line endings, extra spaces and no line ending after the last rectangle
+        Parameters parameters = parse("container height: free\r\nrotations allowed: no\r\nnumber of rectangles: 2\r\n"
+                + "  16   3 \r\n4\t16");
+        Assertions.assertEquals(Util.HeightSupport.FREE, parameters.heightVariant);
+        Assertions.assertEquals(Integer.MAX_VALUE, (int) parameters.height);
+        Assertions.assertFalse(parameters.rotationVariant);
+        Assertions.assertEquals(16, parameters.rectangles.get(0).width);
+        Assertions.assertEquals(3, parameters.rectangles.get(0).height);
+        Assertions.assertEquals(4, parameters.rectangles.get(1).width);
+        Assertions.assertEquals(16, parameters.rectangles.get(1).height);
+    }
+
+    @Test
+    void testMissingHeight() {
+        Assertions.assertThrows(NumberFormatException.class, () -> parse(
+                "container height: free\nrotations allowed: no\nnumber of rectangles: 2\n1950\n10 6\n"));
+    }
+}